@@ -0,0 +1,68 @@
+package foo.bar.aoc2023.benchmark;
+
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.input.InputProvider;
+import foo.bar.aoc2023.solutions.Solution;
+import foo.bar.aoc2023.solutions.Solutions;
+import foo.bar.aoc2023.solver.Part;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every part of every day over its puzzle input, which is read into memory during setup.
+ * {@code part1}/{@code part2} go through {@link Part#solve(Solution, Input)} like the solver does, so cursor
+ * solutions are measured over their cursor, while {@code part1Lines}/{@code part2Lines} always measure the line
+ * stream contract. Run with the gc profiler to get allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionBenchmark {
+
+    @Param({"Day1", "Day2", "Day3", "Day4", "Day5", "Day6", "Day7", "Day8", "Day9", "Day10"})
+    private String day;
+
+    private Solution<?> solution;
+
+    private Input input;
+
+    @Setup
+    public void setup() {
+        solution = Solutions.newInstance(day);
+        input = new InputProvider().get("%s.txt".formatted(day.toLowerCase()));
+    }
+
+    @Benchmark
+    public Object part1() {
+        return Part.PART1.solve(solution, input);
+    }
+
+    @Benchmark
+    public Object part2() {
+        return Part.PART2.solve(solution, input);
+    }
+
+    @Benchmark
+    public Object part1Lines() {
+        return solution.part1(input.lines());
+    }
+
+    @Benchmark
+    public Object part2Lines() {
+        return solution.part2(input.lines());
+    }
+}
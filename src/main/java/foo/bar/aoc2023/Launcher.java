@@ -0,0 +1,28 @@
+package foo.bar.aoc2023;
+
+import foo.bar.aoc2023.input.InputProvider;
+import foo.bar.aoc2023.solutions.Solution;
+import foo.bar.aoc2023.solutions.Solutions;
+import foo.bar.aoc2023.solver.Part;
+
+import java.util.List;
+
+/**
+ * Solves a single day without starting a Spring context: only the requested solution is instantiated.
+ * Usage: {@code Launcher <day> [part]}, e.g. {@code Launcher 7 2}. Both parts are solved when no part is given.
+ */
+public class Launcher {
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: Launcher <day> [part]");
+        }
+        String day = Solutions.dayName(args[0]);
+        List<Part> parts = args.length == 2 ? List.of(Part.of(Integer.parseInt(args[1]))) : List.of(Part.values());
+        Solution<?> solution = Solutions.newInstance(day);
+        var input = new InputProvider().get("%s.txt".formatted(day.toLowerCase()));
+        for (Part part : parts) {
+            System.out.printf("%s part %d: [%s]%n", day, part.getNumber(), part.solve(solution, input));
+        }
+    }
+}
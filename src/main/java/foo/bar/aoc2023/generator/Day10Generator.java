@@ -0,0 +1,149 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pipe mazes whose loop is the outline of a random blob. The blob is grown cell by cell on a coarse grid, only
+ * adding cells that keep it free of holes and of cells touching by a corner only, so its outline is one simple
+ * closed curve. Cells that would widen the blob are mostly passed over, so it grows as winding corridors. Every
+ * coarse corner becomes a tile, with a pipe tile between neighbouring corners, and every tile off the loop gets
+ * random junk, except around S. Side length grows with the square root of the size.
+ */
+public class Day10Generator implements InputGenerator {
+
+    private static final int[][] RING = {{0, -1}, {1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}};
+
+    private static final String JUNK = "|-LJ7F....";
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        int side = (int) Math.round(68 * Math.sqrt(size));
+        boolean[][] blob = growBlob(side, random);
+        char[][] tiles = new char[2 * side + 3][2 * side + 3];
+        for (char[] row : tiles) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = JUNK.charAt(random.nextInt(JUNK.length()));
+            }
+        }
+        List<int[]> corners = new ArrayList<>();
+        for (int y = 0; y <= side; y++) {
+            for (int x = 0; x <= side; x++) {
+                boolean north = y > 0 && isOccupied(blob, x - 1, y - 1) != isOccupied(blob, x, y - 1);
+                boolean south = y < side && isOccupied(blob, x - 1, y) != isOccupied(blob, x, y);
+                boolean west = x > 0 && isOccupied(blob, x - 1, y - 1) != isOccupied(blob, x - 1, y);
+                boolean east = x < side && isOccupied(blob, x, y - 1) != isOccupied(blob, x, y);
+                if (north || south || west || east) {
+                    tiles[2 * y + 1][2 * x + 1] = getPipe(north, south, west, east);
+                    corners.add(new int[]{2 * x + 1, 2 * y + 1});
+                }
+                if (east) {
+                    tiles[2 * y + 1][2 * x + 2] = '-';
+                }
+                if (south) {
+                    tiles[2 * y + 2][2 * x + 1] = '|';
+                }
+            }
+        }
+        placeStart(tiles, corners.get(random.nextInt(corners.size())));
+        for (char[] row : tiles) {
+            out.println(row);
+        }
+    }
+
+    private boolean[][] growBlob(int side, Random random) {
+        boolean[][] blob = new boolean[side][side];
+        int target = side * side * 45 / 100;
+        List<int[]> candidates = new ArrayList<>();
+        candidates.add(new int[]{side / 2, side / 2});
+        int occupied = 0;
+        while (occupied < target && !candidates.isEmpty()) {
+            int index = random.nextInt(candidates.size());
+            int[] cell = candidates.get(index);
+            candidates.set(index, candidates.get(candidates.size() - 1));
+            candidates.remove(candidates.size() - 1);
+            if (blob[cell[1]][cell[0]] || (occupied > 0 && !canAdd(blob, cell[0], cell[1]))) {
+                continue;
+            }
+            if (countSides(blob, cell[0], cell[1]) > 1 && random.nextInt(10) > 0) {
+                continue;
+            }
+            blob[cell[1]][cell[0]] = true;
+            occupied++;
+            for (int i = 0; i < RING.length; i += 2) {
+                int x = cell[0] + RING[i][0];
+                int y = cell[1] + RING[i][1];
+                if (x >= 0 && y >= 0 && x < side && y < side && !blob[y][x]) {
+                    candidates.add(new int[]{x, y});
+                }
+            }
+        }
+        return blob;
+    }
+
+    /**
+     * A cell can be added when its occupied neighbours form a single run around it that is not just a corner:
+     * two runs would close a hole, a lone corner would touch the blob by a corner only.
+     */
+    private boolean canAdd(boolean[][] blob, int x, int y) {
+        boolean[] ring = new boolean[RING.length];
+        for (int i = 0; i < RING.length; i++) {
+            ring[i] = isOccupied(blob, x + RING[i][0], y + RING[i][1]);
+        }
+        int runs = 0;
+        for (int i = 0; i < RING.length; i++) {
+            boolean previous = ring[(i + RING.length - 1) % RING.length];
+            boolean next = ring[(i + 1) % RING.length];
+            if (ring[i] && !previous) {
+                runs++;
+            }
+            if (ring[i] && !previous && !next && i % 2 != 0) {
+                return false;
+            }
+        }
+        return runs == 1;
+    }
+
+    private int countSides(boolean[][] blob, int x, int y) {
+        int sides = 0;
+        for (int i = 0; i < RING.length; i += 2) {
+            if (isOccupied(blob, x + RING[i][0], y + RING[i][1])) {
+                sides++;
+            }
+        }
+        return sides;
+    }
+
+    private boolean isOccupied(boolean[][] blob, int x, int y) {
+        return y >= 0 && x >= 0 && y < blob.length && x < blob[y].length && blob[y][x];
+    }
+
+    private char getPipe(boolean north, boolean south, boolean west, boolean east) {
+        if (north && south) {
+            return '|';
+        } else if (west && east) {
+            return '-';
+        } else if (north) {
+            return east ? 'L' : 'J';
+        } else {
+            return east ? 'F' : '7';
+        }
+    }
+
+    private void placeStart(char[][] tiles, int[] corner) {
+        int x = corner[0];
+        int y = corner[1];
+        char pipe = tiles[y][x];
+        tiles[y][x] = 'S';
+        boolean north = "|LJ".indexOf(pipe) >= 0;
+        boolean south = "|7F".indexOf(pipe) >= 0;
+        boolean west = "-J7".indexOf(pipe) >= 0;
+        boolean east = "-LF".indexOf(pipe) >= 0;
+        if (!north) tiles[y - 1][x] = '.';
+        if (!south) tiles[y + 1][x] = '.';
+        if (!west) tiles[y][x - 1] = '.';
+        if (!east) tiles[y][x + 1] = '.';
+    }
+}
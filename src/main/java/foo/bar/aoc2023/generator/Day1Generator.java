@@ -0,0 +1,32 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Calibration lines of letters, digits and spelled digits, each with at least one numeric digit.
+ */
+public class Day1Generator implements InputGenerator {
+
+    private static final String[] SPELLED = {"one", "two", "three", "four", "five", "six", "seven", "eight", "nine"};
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        for (int i = 0; i < 1000 * size; i++) {
+            StringBuilder line = new StringBuilder();
+            int tokens = 3 + random.nextInt(12);
+            int digitToken = random.nextInt(tokens);
+            for (int t = 0; t < tokens; t++) {
+                int kind = random.nextInt(4);
+                if (t == digitToken || kind == 0) {
+                    line.append((char) ('1' + random.nextInt(9)));
+                } else if (kind == 1) {
+                    line.append(SPELLED[random.nextInt(SPELLED.length)]);
+                } else {
+                    line.append((char) ('a' + random.nextInt(26)));
+                }
+            }
+            out.println(line);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Games of one to six reveals, each showing one to three colors with up to 20 cubes.
+ */
+public class Day2Generator implements InputGenerator {
+
+    private static final List<String> COLORS = List.of("red", "green", "blue");
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        for (int game = 1; game <= 100 * size; game++) {
+            StringJoiner sets = new StringJoiner("; ", "Game %d: ".formatted(game), "");
+            int numSets = 1 + random.nextInt(6);
+            for (int s = 0; s < numSets; s++) {
+                List<String> colors = new ArrayList<>(COLORS);
+                Collections.shuffle(colors, random);
+                StringJoiner set = new StringJoiner(", ");
+                for (String color : colors.subList(0, 1 + random.nextInt(colors.size()))) {
+                    set.add("%d %s".formatted(1 + random.nextInt(20), color));
+                }
+                sets.add(set.toString());
+            }
+            out.println(sets);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Engine schematics 140 columns wide and 140 rows per unit of size, with numbers of up to three digits and
+ * scattered symbols. The last column is always empty, numbers are never directly next to each other.
+ */
+public class Day3Generator implements InputGenerator {
+
+    private static final int WIDTH = 140;
+
+    private static final String SYMBOLS = "*#+$@/=%&-";
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        char[] row = new char[WIDTH];
+        for (int r = 0; r < WIDTH * size; r++) {
+            Arrays.fill(row, '.');
+            int col = 0;
+            while (col < WIDTH - 1) {
+                int roll = random.nextInt(100);
+                if (roll < 10) {
+                    int digits = 1 + random.nextInt(3);
+                    for (int d = 0; d < digits && col < WIDTH - 1; d++) {
+                        row[col++] = (char) ((d == 0 ? '1' : '0') + random.nextInt(d == 0 ? 9 : 10));
+                    }
+                } else if (roll < 14) {
+                    row[col] = SYMBOLS.charAt(random.nextInt(SYMBOLS.length()));
+                }
+                col++;
+            }
+            out.println(row);
+        }
+    }
+}
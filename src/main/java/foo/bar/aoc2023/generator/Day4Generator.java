@@ -0,0 +1,38 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scratchcards with 10 winning and 25 drawn numbers, 200 cards per unit of size. Matches average one per card
+ * and never reach past the last card, so the number of copies grows with the pile but stays finite.
+ */
+public class Day4Generator implements InputGenerator {
+
+    private static final int WINNING = 10;
+
+    private static final int DRAWN = 25;
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        int cards = 200 * size;
+        List<Integer> numbers = IntStream.rangeClosed(1, 99).boxed().collect(Collectors.toCollection(ArrayList::new));
+        for (int card = 1; card <= cards; card++) {
+            int matches = random.nextInt(10) < 6 ? 0 : Math.min(1 + random.nextInt(4), cards - card);
+            Collections.shuffle(numbers, random);
+            List<Integer> winning = numbers.subList(0, WINNING);
+            List<Integer> drawn = new ArrayList<>(numbers.subList(WINNING - matches, WINNING - matches + DRAWN));
+            Collections.shuffle(drawn, random);
+            out.printf("Card %4d: %s | %s%n", card, format(winning), format(drawn));
+        }
+    }
+
+    private String format(List<Integer> numbers) {
+        return numbers.stream().map("%2d"::formatted).collect(Collectors.joining(" "));
+    }
+}
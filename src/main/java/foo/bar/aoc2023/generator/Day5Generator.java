@@ -0,0 +1,56 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Almanacs with 20 seeds and 30 non-overlapping mappings per category map for each unit of size,
+ * over the usual 32-bit id space.
+ */
+public class Day5Generator implements InputGenerator {
+
+    private static final List<String> CATEGORIES = List.of(
+            "seed", "soil", "fertilizer", "water", "light", "temperature", "humidity", "location");
+
+    private static final long ID_SPACE = 1L << 32;
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        List<String> seeds = new ArrayList<>();
+        for (int i = 0; i < 10 * size; i++) {
+            seeds.add(String.valueOf(nextId(random)));
+            seeds.add(String.valueOf(1 + random.nextInt(1 << 28)));
+        }
+        out.printf("seeds: %s%n", String.join(" ", seeds));
+        for (int c = 0; c < CATEGORIES.size() - 1; c++) {
+            out.printf("%n%s-to-%s map:%n", CATEGORIES.get(c), CATEGORIES.get(c + 1));
+            out.print(generateMappings(30 * size, random));
+        }
+    }
+
+    private String generateMappings(int count, Random random) {
+        TreeSet<Long> bounds = new TreeSet<>();
+        while (bounds.size() < 2 * count) {
+            bounds.add(nextId(random));
+        }
+        List<Long> sortedBounds = new ArrayList<>(bounds);
+        List<String> mappings = new ArrayList<>();
+        for (int i = 0; i < sortedBounds.size(); i += 2) {
+            long srcStart = sortedBounds.get(i);
+            long length = sortedBounds.get(i + 1) - srcStart;
+            long dstStart = (long) (random.nextDouble() * (ID_SPACE - length));
+            mappings.add("%d %d %d%n".formatted(dstStart, srcStart, length));
+        }
+        Collections.shuffle(mappings, random);
+        return mappings.stream().collect(Collectors.joining());
+    }
+
+    private long nextId(Random random) {
+        return random.nextInt() & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,35 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Four races whose times grow linearly with the size, every one of them winnable. Part two concatenates the
+ * digits, so its race time grows by orders of magnitude with the size instead. The concatenated distance must
+ * still fit in a long, so times stop growing at a size of {@value #MAX_SIZE}.
+ */
+public class Day6Generator implements InputGenerator {
+
+    private static final int RACES = 4;
+
+    /**
+     * Largest size whose distances, below 10000, still fit in a long once the four of them are concatenated.
+     */
+    private static final int MAX_SIZE = 10;
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        int scale = Math.min(size, MAX_SIZE);
+        StringBuilder times = new StringBuilder("Time:    ");
+        StringBuilder distances = new StringBuilder("Distance:");
+        for (int i = 0; i < RACES; i++) {
+            long time = 10L * scale + random.nextInt(10 * scale);
+            long distance = (long) (random.nextDouble() * (time * time / 4 - time));
+            String width = "%" + (Long.toString(time * time).length() + 1) + "d";
+            times.append(width.formatted(time));
+            distances.append(width.formatted(distance));
+        }
+        out.println(times);
+        out.println(distances);
+    }
+}
@@ -0,0 +1,23 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Camel Cards hands with bids of up to 1000, 1000 hands per unit of size.
+ */
+public class Day7Generator implements InputGenerator {
+
+    private static final String CARDS = "AKQJT98765432";
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        char[] hand = new char[5];
+        for (int i = 0; i < 1000 * size; i++) {
+            for (int c = 0; c < hand.length; c++) {
+                hand[c] = CARDS.charAt(random.nextInt(CARDS.length()));
+            }
+            out.printf("%s %d%n", String.valueOf(hand), 1 + random.nextInt(1000));
+        }
+    }
+}
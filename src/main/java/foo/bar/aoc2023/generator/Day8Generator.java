@@ -0,0 +1,73 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Networks with the same shape as the real puzzle: six ghosts, starting at AAA, BBA, ..., each walk a cycle whose
+ * length is the number of instructions times a distinct prime, taking the instruction at every step and ending on
+ * AAA's ZZZ, BBZ, .... Wrong turns lead to the dead end XXX. There are 7 instructions per unit of size, and node
+ * names only have three characters, so sizes above 56 are rejected.
+ */
+public class Day8Generator implements InputGenerator {
+
+    private static final int[] CYCLE_PRIMES = {11, 13, 17, 19, 23, 29};
+
+    private static final String DEAD_END = "XXX";
+
+    private static final String NAME_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        int numInstructions = 7 * size;
+        char[] instructions = new char[numInstructions];
+        for (int i = 0; i < numInstructions; i++) {
+            instructions[i] = random.nextBoolean() ? 'L' : 'R';
+        }
+        List<String> names = getIntermediateNames(random);
+        List<String> nodes = new ArrayList<>();
+        nodes.add("%s = (%s, %s)".formatted(DEAD_END, DEAD_END, DEAD_END));
+        int nextName = 0;
+        for (int ghost = 0; ghost < CYCLE_PRIMES.length; ghost++) {
+            int cycle = numInstructions * CYCLE_PRIMES[ghost];
+            if (nextName + cycle - 1 > names.size()) {
+                throw new IllegalArgumentException("Size %d exceeds the three character node names".formatted(size));
+            }
+            String[] path = new String[cycle + 1];
+            String prefix = ghost == 0 ? "ZZ" : "%1$c%1$c".formatted((char) ('B' + ghost - 1));
+            path[0] = ghost == 0 ? "AAA" : prefix + "A";
+            path[cycle] = prefix + "Z";
+            for (int step = 1; step < cycle; step++) {
+                path[step] = names.get(nextName++);
+            }
+            for (int step = 0; step <= cycle; step++) {
+                String next = step < cycle ? path[step + 1] : path[1];
+                boolean left = instructions[step % numInstructions] == 'L';
+                nodes.add("%s = (%s, %s)".formatted(path[step], left ? next : DEAD_END, left ? DEAD_END : next));
+            }
+        }
+        Collections.shuffle(nodes, random);
+        out.println(instructions);
+        out.println();
+        nodes.forEach(out::println);
+    }
+
+    private List<String> getIntermediateNames(Random random) {
+        List<String> names = new ArrayList<>();
+        for (char a : NAME_CHARS.toCharArray()) {
+            for (char b : NAME_CHARS.toCharArray()) {
+                for (char c : NAME_CHARS.toCharArray()) {
+                    String name = "" + a + b + c;
+                    if (c != 'A' && c != 'Z' && !name.equals(DEAD_END)) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        Collections.shuffle(names, random);
+        return names;
+    }
+}
@@ -0,0 +1,34 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Histories of 21 values of a random polynomial of degree up to six with small coefficients, 200 per unit of size.
+ */
+public class Day9Generator implements InputGenerator {
+
+    private static final int LENGTH = 21;
+
+    private static final int MAX_DEGREE = 6;
+
+    @Override
+    public void generate(int size, Random random, PrintWriter out) {
+        for (int i = 0; i < 200 * size; i++) {
+            int[] coefficients = new int[1 + random.nextInt(MAX_DEGREE + 1)];
+            for (int c = 0; c < coefficients.length; c++) {
+                coefficients[c] = random.nextInt(9) - 4;
+            }
+            StringJoiner history = new StringJoiner(" ");
+            for (int x = 0; x < LENGTH; x++) {
+                long value = 0;
+                for (int c = coefficients.length - 1; c >= 0; c--) {
+                    value = value * x + coefficients[c];
+                }
+                history.add(String.valueOf(value));
+            }
+            out.println(history);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package foo.bar.aoc2023.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes synthetic but valid puzzle inputs for one day. A size of 1 is roughly as large as the real puzzle
+ * input and the input grows about linearly with the size, unless the generator documents otherwise.
+ * The same size and seed always produce the same input.
+ */
+public interface InputGenerator {
+
+    void generate(int size, Random random, PrintWriter out);
+
+    default byte[] generate(int size, long seed) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new PrintWriter(bytes, false, StandardCharsets.US_ASCII)) {
+            generate(size, new Random(seed), out);
+        }
+        return bytes.toByteArray();
+    }
+
+    static InputGenerator forDay(String day) {
+        var generator = Map.of(
+                "Day1", new Day1Generator(),
+                "Day2", new Day2Generator(),
+                "Day3", new Day3Generator(),
+                "Day4", new Day4Generator(),
+                "Day5", new Day5Generator(),
+                "Day6", new Day6Generator(),
+                "Day7", new Day7Generator(),
+                "Day8", new Day8Generator(),
+                "Day9", new Day9Generator(),
+                "Day10", new Day10Generator()
+        ).get(day);
+        if (generator == null) {
+            throw new IllegalArgumentException("No generator for " + day);
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,186 @@
+package foo.bar.aoc2023.generator;
+
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.solutions.Solution;
+import foo.bar.aoc2023.solutions.Solutions;
+import foo.bar.aoc2023.solver.Part;
+import foo.bar.aoc2023.solver.PartResult;
+import foo.bar.aoc2023.solver.SolverMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solves generated inputs of increasing size for every day and reports how time and allocations grow. The growth
+ * exponent compares each run with the previous size: about 1 is linear, 2 quadratic. A part stops scaling once
+ * its next run is predicted to exceed the time budget. Allocations are summed over every live thread, so work that
+ * days hand to the common pool is counted too.
+ * <p>
+ * Usage: {@code ScalingHarness [--days=1,3,10] [--sizes=1,10,100,1000,10000] [--seed=42] [--budget=20]
+ * [--out=<dir>]}, where the budget is in seconds and generated inputs are also saved to the out directory.
+ */
+public class ScalingHarness {
+
+    static final int[] DEFAULT_SIZES = {1, 10, 100, 1000, 10000};
+
+    private record Run(int size, PartResult result, long allocatedBytes) {}
+
+    private final List<String> days;
+
+    private final int[] sizes;
+
+    private final long seed;
+
+    private final Duration budget;
+
+    private final Path out;
+
+    private final SolverMetrics metrics = new SolverMetrics(new SimpleMeterRegistry());
+
+    public ScalingHarness(List<String> days, int[] sizes, long seed, Duration budget, Path out) {
+        this.days = days;
+        this.sizes = sizes;
+        this.seed = seed;
+        this.budget = budget;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> days = Solutions.DAYS;
+        int[] sizes = DEFAULT_SIZES;
+        long seed = 42;
+        Duration budget = Duration.ofSeconds(20);
+        Path out = null;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "--days" -> days = Arrays.stream(option[1].split(",")).map(Solutions::dayName).toList();
+                case "--sizes" -> sizes = Arrays.stream(option[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--seed" -> seed = Long.parseLong(option[1]);
+                case "--budget" -> budget = Duration.ofSeconds(Long.parseLong(option[1]));
+                case "--out" -> out = Path.of(option[1]);
+                default -> throw new IllegalArgumentException("Unexpected option: " + arg);
+            }
+        }
+        new ScalingHarness(days, sizes, seed, budget, out).run();
+    }
+
+    public void run() throws IOException {
+        System.out.println("Alloc MB sums every live thread, threads that end during a run are not counted.");
+        System.out.printf("%-6s %4s %7s %10s %11s %11s %8s%n",
+                "Day", "Part", "Size", "Input KB", "Wall ms", "Alloc MB", "Growth");
+        for (String day : days) {
+            scale(day);
+        }
+    }
+
+    private void scale(String day) throws IOException {
+        Solution<?> solution = Solutions.newInstance(day);
+        InputGenerator generator = InputGenerator.forDay(day);
+        Map<Part, Run> previous = new EnumMap<>(Part.class);
+        Map<Part, Run> last = new EnumMap<>(Part.class);
+        Map<Part, String> stopped = new EnumMap<>(Part.class);
+        for (int size : sizes) {
+            if (stopped.size() == Part.values().length) {
+                break;
+            }
+            byte[] bytes;
+            try {
+                bytes = generator.generate(size, seed);
+            } catch (IllegalArgumentException e) {
+                System.out.printf("%-6s %4s %7d  %s%n", day, "-", size, e.getMessage());
+                break;
+            }
+            if (out != null) {
+                Files.write(out.resolve("%s-%d.txt".formatted(day.toLowerCase(), size)), bytes);
+            }
+            Input input = Input.of(bytes);
+            for (Part part : Part.values()) {
+                if (stopped.containsKey(part)) {
+                    continue;
+                }
+                Duration predicted = predict(previous.get(part), last.get(part), size);
+                if (predicted.compareTo(budget) > 0) {
+                    stopped.put(part, "skipped, predicted %d s".formatted(predicted.toSeconds()));
+                    System.out.printf("%-6s %4d %7d  %s%n", day, part.getNumber(), size, stopped.get(part));
+                    continue;
+                }
+                if (last.get(part) == null) {
+                    part.solve(solution, input);
+                }
+                PartResult result;
+                Map<Long, Long> allocatedBefore = getAllocatedBytesByThread();
+                try {
+                    result = metrics.measure(solution, part, () -> part.prepare(solution, input));
+                } catch (RuntimeException e) {
+                    stopped.put(part, "failed: " + e);
+                    System.out.printf("%-6s %4d %7d  %s%n", day, part.getNumber(), size, stopped.get(part));
+                    continue;
+                }
+                Run run = new Run(size, result, getAllocatedBytesSince(allocatedBefore));
+                System.out.printf("%-6s %4d %7d %10.1f %11.1f %11.1f %8s%n",
+                        day,
+                        part.getNumber(),
+                        size,
+                        bytes.length / 1024.0,
+                        result.elapsed().toNanos() / 1e6,
+                        run.allocatedBytes / (1024.0 * 1024.0),
+                        last.containsKey(part) ? "%.2f".formatted(growth(last.get(part), run)) : "-");
+                previous.put(part, last.get(part));
+                last.put(part, run);
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated so far by each live thread, by thread id, or nothing if the JVM cannot tell.
+     */
+    private static Map<Long, Long> getAllocatedBytesByThread() {
+        Map<Long, Long> allocated = new HashMap<>();
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    allocated.put(ids[i], bytes[i]);
+                }
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Bytes allocated by every live thread since {@code before}, counting threads started since then in full.
+     */
+    private static long getAllocatedBytesSince(Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> thread : getAllocatedBytesByThread().entrySet()) {
+            total += thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static Duration predict(Run previous, Run last, int size) {
+        if (last == null) {
+            return Duration.ZERO;
+        }
+        double exponent = previous == null ? 1 : Math.max(1, growth(previous, last));
+        double factor = Math.pow((double) size / last.size, exponent);
+        return Duration.ofNanos((long) (last.result.elapsed().toNanos() * factor));
+    }
+
+    private static double growth(Run from, Run to) {
+        double time = Math.max(1, to.result.elapsed().toNanos()) / (double) Math.max(1, from.result.elapsed().toNanos());
+        return Math.log(time) / Math.log((double) to.size / from.size);
+    }
+}
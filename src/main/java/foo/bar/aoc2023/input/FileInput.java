@@ -0,0 +1,112 @@
+package foo.bar.aoc2023.input;
+
+import lombok.extern.java.Log;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * An input read from the file system, or from stdin when the location is "-". Stdin is first spooled to a
+ * temporary file, so every part can read it independently. Lines can be streamed through a fixed-size buffer,
+ * keeping the heap bounded no matter how large the file is, or the whole file can be loaded at once, in which
+ * case large files are memory-mapped rather than read onto the heap.
+ */
+@Log
+public final class FileInput implements Closeable {
+
+    public static final String STDIN = "-";
+
+    private final Path path;
+
+    private final boolean temporary;
+
+    private final int bufferSize;
+
+    private Input loaded;
+
+    private String sha256;
+
+    private FileInput(Path path, boolean temporary, int bufferSize) {
+        this.path = path;
+        this.temporary = temporary;
+        this.bufferSize = bufferSize;
+    }
+
+    public static FileInput open(String location, int bufferSize) throws IOException {
+        if (!STDIN.equals(location)) {
+            return new FileInput(Path.of(location), false, bufferSize);
+        }
+        Path spool = Files.createTempFile("aoc2023-stdin", ".txt");
+        Files.copy(System.in, spool, StandardCopyOption.REPLACE_EXISTING);
+        return new FileInput(spool, true, bufferSize);
+    }
+
+    /**
+     * A new stream over the lines of the file, which must be closed once consumed.
+     */
+    public Stream<String> lines() {
+        try {
+            var reader = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), bufferSize);
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hex SHA-256 digest of the file, computed once by streaming it through the buffer.
+     */
+    public synchronized String sha256() throws IOException {
+        if (sha256 == null) {
+            MessageDigest digest = Input.newSha256();
+            try (var in = new DigestInputStream(Files.newInputStream(path), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    /**
+     * Whether the whole file fits in a single memory mapping.
+     */
+    public boolean isMappable() throws IOException {
+        return Files.size(path) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * The whole file, loaded once the first time it is needed.
+     */
+    public synchronized Input load() {
+        if (loaded == null) {
+            loaded = InputProvider.load(path);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package foo.bar.aoc2023.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The raw bytes of one puzzle input, loaded once and shared between every part that solves it.
+ * Each accessor hands out an independent view over the same bytes, so nothing is copied or re-read.
+ */
+public final class Input {
+
+    private final ByteBuffer content;
+
+    private volatile String sha256;
+
+    Input(ByteBuffer content) {
+        this.content = content;
+    }
+
+    public static Input of(byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes));
+    }
+
+    public int size() {
+        return content.limit();
+    }
+
+    /**
+     * A fresh view over the input bytes, positioned at the start. Views must not be written to.
+     */
+    public ByteBuffer bytes() {
+        return content.duplicate();
+    }
+
+    /**
+     * Hex SHA-256 digest of the input bytes, computed once.
+     */
+    public String sha256() {
+        if (sha256 == null) {
+            MessageDigest digest = newSha256();
+            digest.update(bytes());
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cursor over the input lines that reads the bytes in place.
+     */
+    public LineCursor cursor() {
+        return new LineCursor(bytes());
+    }
+
+    /**
+     * The input split into lines with the same semantics as {@link String#lines()}.
+     */
+    public Stream<String> lines() {
+        ByteBuffer view = bytes();
+        Spliterator<String> lines = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                if (!view.hasRemaining()) {
+                    return false;
+                }
+                int start = view.position();
+                int end = LineCursor.findLineEnd(view, start);
+                view.position(LineCursor.skipLineBreak(view, end));
+                action.accept(decode(view, start, end));
+                return true;
+            }
+        };
+        return StreamSupport.stream(lines, false);
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
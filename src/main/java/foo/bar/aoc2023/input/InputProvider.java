@@ -0,0 +1,48 @@
+package foo.bar.aoc2023.input;
+
+import lombok.SneakyThrows;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads classpath inputs once and keeps them for every later request. Small inputs are kept as a heap
+ * byte[]; inputs on the file system larger than {@link #MAPPING_THRESHOLD} are memory-mapped instead.
+ */
+@Component
+public class InputProvider {
+
+    static final long MAPPING_THRESHOLD = 16L * 1024 * 1024;
+
+    private final Map<String, Input> inputs = new ConcurrentHashMap<>();
+
+    public Input get(String resourceName) {
+        return inputs.computeIfAbsent(resourceName, this::load);
+    }
+
+    @SneakyThrows
+    private Input load(String resourceName) {
+        var resource = new ClassPathResource(resourceName, InputProvider.class.getClassLoader());
+        if (resource.isFile()) {
+            return load(resource.getFile().toPath());
+        }
+        return new Input(ByteBuffer.wrap(resource.getContentAsByteArray()));
+    }
+
+    @SneakyThrows
+    static Input load(Path path) {
+        if (Files.size(path) < MAPPING_THRESHOLD) {
+            return new Input(ByteBuffer.wrap(Files.readAllBytes(path)));
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package foo.bar.aoc2023.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Walks an input line by line directly over its bytes. The cursor itself is the {@link CharSequence} of the
+ * current line, and it also offers scanner-style reads of characters and numbers within that line, so days can
+ * parse their input without allocating a String per line or an array per split. Inputs are expected to be ASCII.
+ */
+public final class LineCursor implements CharSequence {
+
+    private final ByteBuffer buffer;
+
+    private int lineStart;
+
+    private int lineEnd;
+
+    private int nextLineStart;
+
+    private int position;
+
+    LineCursor(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.lineStart = buffer.position();
+        this.lineEnd = lineStart;
+        this.nextLineStart = lineStart;
+        this.position = lineStart;
+    }
+
+    /**
+     * Moves to the next line, with the same line semantics as {@link String#lines()}.
+     *
+     * @return false once the input is exhausted
+     */
+    public boolean nextLine() {
+        int limit = buffer.limit();
+        if (nextLineStart >= limit) {
+            return false;
+        }
+        int end = findLineEnd(buffer, nextLineStart);
+        lineStart = nextLineStart;
+        lineEnd = end;
+        nextLineStart = skipLineBreak(buffer, end);
+        position = lineStart;
+        return true;
+    }
+
+    /**
+     * Number of bytes not yet reached by {@link #nextLine()}.
+     */
+    public int remaining() {
+        return buffer.limit() - nextLineStart;
+    }
+
+    /**
+     * Splits the lines not yet reached into independent cursors of about {@code chunkSize} bytes each, every chunk
+     * ending on a line break. The chunks share this cursor's bytes, nothing is copied.
+     */
+    public List<LineCursor> split(int chunkSize) {
+        List<LineCursor> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        int start = nextLineStart;
+        while (start < limit) {
+            int end = (int) Math.min((long) start + chunkSize, limit);
+            while (end < limit && !endsLine(buffer, end)) {
+                end++;
+            }
+            chunks.add(new LineCursor(buffer.duplicate().limit(end).position(start)));
+            start = end;
+        }
+        return chunks;
+    }
+
+    @Override
+    public int length() {
+        return lineEnd - lineStart;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(lineStart + Objects.checkIndex(index, length())) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length()];
+        buffer.get(lineStart, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Position of the read cursor within the current line.
+     */
+    public int position() {
+        return position - lineStart;
+    }
+
+    public LineCursor position(int index) {
+        position = lineStart + index;
+        return this;
+    }
+
+    public boolean hasNext() {
+        return position < lineEnd;
+    }
+
+    public char peek() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return (char) (buffer.get(position) & 0xFF);
+    }
+
+    public char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    public LineCursor skip(int count) {
+        position = Math.min(position + count, lineEnd);
+        return this;
+    }
+
+    /**
+     * Moves the read cursor just past the next occurrence of {@code c}, or to the end of the line if there is none.
+     */
+    public LineCursor skipPast(char c) {
+        while (position < lineEnd && buffer.get(position++) != c) {
+            // advance
+        }
+        return this;
+    }
+
+    /**
+     * Skips anything that cannot start a number and reports whether a number follows in the current line.
+     */
+    public boolean hasNextNumber() {
+        while (position < lineEnd) {
+            byte b = buffer.get(position);
+            if (isDigit(b) || (b == '-' && position + 1 < lineEnd && isDigit(buffer.get(position + 1)))) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    public long nextLong() {
+        if (!hasNextNumber()) {
+            throw new NoSuchElementException();
+        }
+        boolean negative = buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        while (position < lineEnd && isDigit(buffer.get(position))) {
+            value = value * 10 + (buffer.get(position++) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /**
+     * Index of the first line break at or after {@code from}, or the limit if there is none.
+     */
+    static int findLineEnd(ByteBuffer buffer, int from) {
+        int end = from;
+        while (end < buffer.limit() && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Start of the line following a line ending at {@code end}, which is one of "\n", "\r\n" or a lone "\r".
+     */
+    static int skipLineBreak(ByteBuffer buffer, int end) {
+        int limit = buffer.limit();
+        if (end >= limit) {
+            return end;
+        }
+        return buffer.get(end) == '\r' && end + 1 < limit && buffer.get(end + 1) == '\n' ? end + 2 : end + 1;
+    }
+
+    /**
+     * Whether a line break ends just before {@code index}, without splitting a "\r\n" pair.
+     */
+    private static boolean endsLine(ByteBuffer buffer, int index) {
+        byte previous = buffer.get(index - 1);
+        return previous == '\n' || (previous == '\r' && buffer.get(index) != '\n');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
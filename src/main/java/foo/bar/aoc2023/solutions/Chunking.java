@@ -0,0 +1,30 @@
+package foo.bar.aoc2023.solutions;
+
+/**
+ * Sizes of the pieces solutions split their input into for parallel tasks, such as the Day7 runs sorted in memory.
+ * Tests cap them all at once to cut the small example inputs into many pieces.
+ */
+final class Chunking {
+
+    static final int DOCUMENT_BYTES = 1 << 20;
+
+    static final int SCHEMATIC_ROWS = 512;
+
+    static final int RACES = 1 << 14;
+
+    private static volatile int cap = Integer.MAX_VALUE;
+
+    private Chunking() {}
+
+    static int size(int preferred) {
+        return Math.min(preferred, cap);
+    }
+
+    static void cap(int size) {
+        cap = size;
+    }
+
+    static void uncap() {
+        cap = Integer.MAX_VALUE;
+    }
+}
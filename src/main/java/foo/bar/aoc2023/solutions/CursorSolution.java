@@ -0,0 +1,14 @@
+package foo.bar.aoc2023.solutions;
+
+import foo.bar.aoc2023.input.LineCursor;
+
+/**
+ * A {@link Solution} that can also parse its input in place from a {@link LineCursor}, without allocating
+ * a String per line. When a solution implements it, the solver prefers these overloads.
+ */
+public interface CursorSolution<T> extends Solution<T> {
+
+    T part1(LineCursor input);
+
+    T part2(LineCursor input);
+}
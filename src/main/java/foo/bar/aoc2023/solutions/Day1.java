@@ -1,64 +1,157 @@
 package foo.bar.aoc2023.solutions;
 
 
+import foo.bar.aoc2023.input.LineCursor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Component
-public class Day1 implements Solution<Long> {
+public class Day1 implements CursorSolution<Long> {
+
+    /**
+     * Aho-Corasick automaton over ASCII recognising every digit token, compiled into a dense transition table.
+     * No token contains another, so at most one token ends at any position and the first (last) token to end
+     * is also the first (last) to start.
+     */
+    private static final class TokenAutomaton {
+
+        private static final int ALPHABET = 128;
+
+        private final int[][] transitions;
+
+        private final int[] digits;
+
+        private TokenAutomaton(Map<String, Integer> tokenMap) {
+            List<int[]> trie = new ArrayList<>();
+            List<Integer> outputs = new ArrayList<>();
+            trie.add(newState());
+            outputs.add(-1);
+            tokenMap.forEach((token, digit) -> {
+                int state = 0;
+                for (char c : token.toCharArray()) {
+                    if (trie.get(state)[c] == 0) {
+                        trie.get(state)[c] = trie.size();
+                        trie.add(newState());
+                        outputs.add(-1);
+                    }
+                    state = trie.get(state)[c];
+                }
+                outputs.set(state, digit);
+            });
+            transitions = trie.toArray(int[][]::new);
+            digits = outputs.stream().mapToInt(Integer::intValue).toArray();
+            int[] fail = new int[transitions.length];
+            Deque<Integer> pending = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                if (transitions[0][c] != 0) {
+                    pending.add(transitions[0][c]);
+                }
+            }
+            while (!pending.isEmpty()) {
+                int state = pending.poll();
+                if (digits[state] < 0) {
+                    digits[state] = digits[fail[state]];
+                }
+                for (int c = 0; c < ALPHABET; c++) {
+                    int next = transitions[state][c];
+                    if (next != 0) {
+                        fail[next] = transitions[fail[state]][c];
+                        pending.add(next);
+                    } else {
+                        transitions[state][c] = transitions[fail[state]][c];
+                    }
+                }
+            }
+        }
+
+        private static int[] newState() {
+            return new int[ALPHABET];
+        }
+    }
+
+    private static final TokenAutomaton DIGITS = new TokenAutomaton(getDigitMap());
+
+    private static final TokenAutomaton DIGITS_AND_WORDS = new TokenAutomaton(getCombinedMap());
 
     @Override
     public Long part1(Stream<String> calibrationDocument) {
-        return calibrationDocument.map(line -> getCalibrationValue(line, getDigitMap()))
-                .reduce(Long::sum)
-                .orElse(0L);
+        return calibrationDocument.mapToLong(line -> getCalibrationValue(line, DIGITS)).sum();
     }
 
     @Override
     public Long part2(Stream<String> calibrationDocument) {
-        return calibrationDocument.map(line -> getCalibrationValue(line, getCombinedMap()))
-                .reduce(Long::sum)
-                .orElse(0L);
+        return calibrationDocument.mapToLong(line -> getCalibrationValue(line, DIGITS_AND_WORDS)).sum();
+    }
+
+    @Override
+    public Long part1(LineCursor calibrationDocument) {
+        return sumCalibrationValues(calibrationDocument, DIGITS);
+    }
+
+    @Override
+    public Long part2(LineCursor calibrationDocument) {
+        return sumCalibrationValues(calibrationDocument, DIGITS_AND_WORDS);
+    }
+
+    @Override
+    public boolean isStreamable(int part) {
+        return true;
+    }
+
+    @Override
+    public boolean isParallel(int part) {
+        return true;
+    }
+
+    private long sumCalibrationValues(LineCursor calibrationDocument, TokenAutomaton automaton) {
+        return calibrationDocument.split(Chunking.size(Chunking.DOCUMENT_BYTES))
+                .parallelStream()
+                .mapToLong(chunk -> sumChunkCalibrationValues(chunk, automaton))
+                .sum();
+    }
+
+    private long sumChunkCalibrationValues(LineCursor calibrationDocument, TokenAutomaton automaton) {
+        long result = 0;
+        while (calibrationDocument.nextLine()) {
+            result += getCalibrationValue(calibrationDocument, automaton);
+        }
+        return result;
     }
 
-    private long getCalibrationValue(String line, Map<String, Integer> tokenMap) {
-        var firstDigit = tokenMap.entrySet()
-                .stream()
-                .filter(entry -> line.contains(entry.getKey()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> line.indexOf(entry.getKey())
-                ))
-                .entrySet()
-                .stream()
-                .min(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .map(tokenMap::get)
-                .orElse(null);
-        var lastDigit = tokenMap.entrySet()
-                .stream()
-                .filter(entry -> line.contains(entry.getKey()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> line.lastIndexOf(entry.getKey())
-                )).entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .map(tokenMap::get)
-                .orElse(null);
-        return Long.parseLong("%s%s".formatted(firstDigit, lastDigit));
+    private long getCalibrationValue(CharSequence line, TokenAutomaton automaton) {
+        int firstDigit = -1;
+        int lastDigit = -1;
+        int state = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            state = c < TokenAutomaton.ALPHABET ? automaton.transitions[state][c] : 0;
+            int digit = automaton.digits[state];
+            if (digit >= 0) {
+                if (firstDigit < 0) {
+                    firstDigit = digit;
+                }
+                lastDigit = digit;
+            }
+        }
+        if (firstDigit < 0) {
+            throw new IllegalArgumentException("No digit in line: " + line);
+        }
+        return firstDigit * 10L + lastDigit;
     }
 
-    private Map<String, Integer> getCombinedMap() {
+    private static Map<String, Integer> getCombinedMap() {
         return Stream.concat(getDigitMap().entrySet().stream(), getSpelledMap().entrySet().stream())
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
-    private Map<String, Integer> getSpelledMap() {
+    private static Map<String, Integer> getSpelledMap() {
         return Map.of(
                 "one", 1,
                 "two", 2,
@@ -72,7 +165,7 @@ public class Day1 implements Solution<Long> {
         );
     }
 
-    private Map<String, Integer> getDigitMap() {
+    private static Map<String, Integer> getDigitMap() {
         return Map.of(
                 "1", 1,
                 "2", 2,
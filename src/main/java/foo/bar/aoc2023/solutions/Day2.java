@@ -1,68 +1,200 @@
 package foo.bar.aoc2023.solutions;
 
-import lombok.Builder;
+import foo.bar.aoc2023.input.LineCursor;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
-import java.util.function.Function;
-import java.util.function.IntPredicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Component
-public class Day2 implements Solution<Integer> {
+public class Day2 implements CursorSolution<Long> {
 
-    @Builder
-    private record Color(int r, int g, int b){}
+    private static final int MAX_RED = 12;
 
-    private static final Color max = new Color(12, 13, 14);
+    private static final int MAX_GREEN = 13;
+
+    private static final int MAX_BLUE = 14;
+
+    /**
+     * A game record reduced to its id and maximum count of every color. It never escapes the loop parsing it, so
+     * escape analysis can keep it off the heap.
+     */
+    private record Game(int id, int red, int green, int blue) {}
+
+    /**
+     * Columnar index of the per-color maxima of every game, answering many bag-limit queries without reparsing.
+     * Queries are evaluated in parallel, each one as a branch-free loop over the primitive columns.
+     */
+    public static final class GameIndex {
+
+        private int size;
+
+        private int[] ids = new int[256];
+
+        private int[] reds = new int[256];
+
+        private int[] greens = new int[256];
+
+        private int[] blues = new int[256];
+
+        private long[] powers = new long[256];
+
+        private GameIndex() {}
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Sum of the ids of the games possible with each bag, given as columns of red, green and blue counts.
+         */
+        public long[] idSums(int[] bagReds, int[] bagGreens, int[] bagBlues) {
+            return IntStream.range(0, bagReds.length)
+                    .parallel()
+                    .mapToLong(q -> sumPossible(ids, bagReds[q], bagGreens[q], bagBlues[q]))
+                    .toArray();
+        }
+
+        /**
+         * Sum of the powers of the games possible with each bag, given as columns of red, green and blue counts.
+         */
+        public long[] powerSums(int[] bagReds, int[] bagGreens, int[] bagBlues) {
+            return IntStream.range(0, bagReds.length)
+                    .parallel()
+                    .mapToLong(q -> sumPossible(powers, bagReds[q], bagGreens[q], bagBlues[q]))
+                    .toArray();
+        }
+
+        private long sumPossible(int[] values, int bagRed, int bagGreen, int bagBlue) {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                int impossible = ((bagRed - reds[i]) | (bagGreen - greens[i]) | (bagBlue - blues[i])) >> 31;
+                sum += values[i] & ~impossible;
+            }
+            return sum;
+        }
+
+        private long sumPossible(long[] values, int bagRed, int bagGreen, int bagBlue) {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                int impossible = ((bagRed - reds[i]) | (bagGreen - greens[i]) | (bagBlue - blues[i])) >> 31;
+                sum += values[i] & ~(long) impossible;
+            }
+            return sum;
+        }
+
+        private void add(Game game) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                reds = Arrays.copyOf(reds, capacity);
+                greens = Arrays.copyOf(greens, capacity);
+                blues = Arrays.copyOf(blues, capacity);
+                powers = Arrays.copyOf(powers, capacity);
+            }
+            ids[size] = game.id;
+            reds[size] = game.red;
+            greens[size] = game.green;
+            blues[size] = game.blue;
+            powers[size] = getPower(game);
+            size++;
+        }
+    }
+
+    @Override
+    public Long part1(Stream<String> input) {
+        return input.map(this::parseGame)
+                .filter(this::isPossible)
+                .mapToLong(Game::id)
+                .sum();
+    }
 
     @Override
-    public Integer part1(Stream<String> input) {
-        Color[][] cubeSets = input.map(this::parseSets).toArray(Color[][]::new);
-        IntPredicate redCheck = i -> getComponentMax(cubeSets[i], Color::r) <= max.r;
-        IntPredicate greenCheck = i -> getComponentMax(cubeSets[i], Color::g) <= max.g;
-        IntPredicate blueCheck = i -> getComponentMax(cubeSets[i], Color::b) <= max.b;
-        return IntStream.range(0, cubeSets.length)
-                .filter(redCheck.and(greenCheck).and(blueCheck))
-                .map(i -> i+1)
-                .reduce(Integer::sum)
-                .orElse(0);
+    public Long part2(Stream<String> input) {
+        return input.mapToLong(line -> getPower(parseGame(line))).sum();
     }
 
     @Override
-    public Integer part2(Stream<String> input) {
-        return input.map(this::parseSets)
-                .map(cubeSet -> getComponentMax(cubeSet, Color::r)
-                                * getComponentMax(cubeSet, Color::g)
-                                * getComponentMax(cubeSet, Color::b))
-                .reduce(Integer::sum)
-                .orElse(0);
+    public Long part1(LineCursor input) {
+        long result = 0;
+        while (input.nextLine()) {
+            Game game = parseGame(input);
+            if (isPossible(game)) {
+                result += game.id;
+            }
+        }
+        return result;
     }
 
-    private int getComponentMax(Color[] cubeSet, Function<Color, Integer> colorExtractor) {
-        return Arrays.stream(cubeSet).map(colorExtractor).max(Integer::compare).orElse(0);
+    @Override
+    public Long part2(LineCursor input) {
+        long result = 0;
+        while (input.nextLine()) {
+            result += getPower(parseGame(input));
+        }
+        return result;
     }
 
-    private Color[] parseSets(String line) {
-        return Arrays.stream(line.split(": ")[1].split("; "))
-                .map(this::parseSet)
-                .toArray(Color[]::new);
+    @Override
+    public boolean isStreamable(int part) {
+        return true;
     }
 
-    private Color parseSet(String components) {
-        Color.ColorBuilder builder = Color.builder();
-        String[] colorComponents = components.split(", ");
-        for (String component: colorComponents) {
-            String[] qtyToComponent = component.split(" ");
-            int qty = Integer.parseInt(qtyToComponent[0]);
-            switch (qtyToComponent[1]) {
-                case "red" -> builder.r(qty);
-                case "green" -> builder.g(qty);
-                case "blue" -> builder.b(qty);
-                default -> throw new IllegalStateException("Unexpected value: " + qtyToComponent[1]);
+    public GameIndex buildIndex(LineCursor input) {
+        GameIndex index = new GameIndex();
+        while (input.nextLine()) {
+            index.add(parseGame(input));
+        }
+        return index;
+    }
+
+    public GameIndex buildIndex(Stream<String> input) {
+        GameIndex index = new GameIndex();
+        input.forEach(line -> index.add(parseGame(line)));
+        return index;
+    }
+
+    private boolean isPossible(Game game) {
+        return game.red <= MAX_RED && game.green <= MAX_GREEN && game.blue <= MAX_BLUE;
+    }
+
+    private static long getPower(Game game) {
+        return (long) game.red * game.green * game.blue;
+    }
+
+    /**
+     * Reads the id and the maximum count of every color of a game record in a single pass over the characters.
+     */
+    private Game parseGame(CharSequence line) {
+        int id = 0;
+        int r = 0;
+        int g = 0;
+        int b = 0;
+        int length = line.length();
+        int i = "Game ".length();
+        for (char c; i < length && (c = line.charAt(i)) != ':'; i++) {
+            id = id * 10 + (c - '0');
+        }
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                i++;
+                continue;
+            }
+            int qty = 0;
+            for (; i < length && (c = line.charAt(i)) >= '0' && c <= '9'; i++) {
+                qty = qty * 10 + (c - '0');
+            }
+            char color = line.charAt(i + 1);
+            switch (color) {
+                case 'r' -> r = Math.max(r, qty);
+                case 'g' -> g = Math.max(g, qty);
+                case 'b' -> b = Math.max(b, qty);
+                default -> throw new IllegalStateException("Unexpected value: " + color);
             }
+            i += 2;
         }
-        return builder.build();
+        return new Game(id, r, g, b);
     }
 }
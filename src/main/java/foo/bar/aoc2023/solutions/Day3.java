@@ -1,99 +1,171 @@
 package foo.bar.aoc2023.solutions;
 
-import lombok.Builder;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
 @Component
-public class Day3 implements Solution<Integer> {
+public class Day3 implements Solution<Long> {
 
-    @Builder
-    private record Range(int a, int b){}
+    @FunctionalInterface
+    private interface NumberConsumer {
+        void accept(int row, int start, int end, int value);
+    }
+
+    @FunctionalInterface
+    private interface BandSum {
+        long sum(int fromRow, int toRow);
+    }
+
+    @Override
+    public Long part1(Stream<String> input) {
+        List<String> rows = input.toList();
+        int width = rows.get(0).length();
+        return sumBands(rows.size(), (fromRow, toRow) -> sumPartNumbers(rows, width, fromRow, toRow));
+    }
 
     @Override
-    public Integer part1(Stream<String> input) {
-        List<String> lines = input.toList();
-        char[] chars = String.join("", lines).toCharArray();
-        int lineLength = chars.length / lines.size();
-        return getNumberRanges(chars, lineLength).stream()
-                .filter(r -> isPartNumber(r, chars, lineLength))
-                .map(r -> getPartNumber(r, chars))
-                .reduce(Integer::sum)
-                .orElse(0);
+    public Long part2(Stream<String> input) {
+        List<String> rows = input.toList();
+        int width = rows.get(0).length();
+        return sumBands(rows.size(), (fromRow, toRow) -> sumGearRatios(rows, width, fromRow, toRow));
     }
 
     @Override
-    public Integer part2(Stream<String> input) {
-        List<String> lines = input.toList();
-        char[] chars = String.join("", lines).toCharArray();
-        int lineLength = chars.length / lines.size();
-        List<Range> numberRanges = getNumberRanges(chars, lineLength);
-        return getSumOfGearRatios(numberRanges, chars, lineLength);
+    public boolean isParallel(int part) {
+        return true;
+    }
+
+    /**
+     * Splits the schematic into bands of rows and sums {@code bandSum} over them in parallel. A band owns the numbers
+     * (part1) or gears (part2) in its own rows and reads one halo row on either side, so everything adjacent to what it
+     * owns is visible to it and nothing is counted twice.
+     */
+    private long sumBands(int numRows, BandSum bandSum) {
+        int bandRows = Chunking.size(Chunking.SCHEMATIC_ROWS);
+        return IntStream.range(0, (numRows + bandRows - 1) / bandRows)
+                .parallel()
+                .mapToLong(band -> bandSum.sum(band * bandRows, Math.min(numRows, (band + 1) * bandRows)))
+                .sum();
+    }
+
+    private long sumPartNumbers(List<String> rows, int width, int fromRow, int toRow) {
+        long[] partMask = getSymbolAdjacencyMask(rows, width, fromRow, toRow);
+        long[] sum = new long[1];
+        forEachNumber(rows, width, fromRow, toRow, (row, start, end, value) -> {
+            int offset = (row - fromRow) * width;
+            if (isAnySet(partMask, offset + start, offset + end)) {
+                sum[0] += value;
+            }
+        });
+        return sum[0];
     }
 
-    private List<Range> getNumberRanges(char[] chars, int lineLength) {
-        List<Range> result = new ArrayList<>();
-        boolean inRange = false;
-        Range.RangeBuilder builder = Range.builder();
-        for (int i = 0; i < chars.length; i++) {
-            if (!inRange && Character.isDigit(chars[i])) {
-                builder.a(i);
-                inRange = true;
+    private long sumGearRatios(List<String> rows, int width, int fromRow, int toRow) {
+        int[] gearIds = new int[(toRow - fromRow) * width];
+        int numGears = assignGearIds(rows, width, fromRow, toRow, gearIds);
+        if (numGears == 0) {
+            return 0;
+        }
+        int[] adjacentNumbers = new int[numGears + 1];
+        long[] ratios = new long[numGears + 1];
+        forEachNumber(rows, width, Math.max(0, fromRow - 1), Math.min(rows.size(), toRow + 1),
+                (row, start, end, value) -> {
+                    for (int r = Math.max(fromRow, row - 1); r <= Math.min(toRow - 1, row + 1); r++) {
+                        for (int c = Math.max(0, start - 1); c <= Math.min(width - 1, end); c++) {
+                            int gear = gearIds[(r - fromRow) * width + c];
+                            if (gear != 0) {
+                                ratios[gear] = adjacentNumbers[gear]++ == 0 ? value : ratios[gear] * value;
+                            }
+                        }
+                    }
+                });
+        long sum = 0;
+        for (int gear = 1; gear <= numGears; gear++) {
+            if (adjacentNumbers[gear] == 2) {
+                sum += ratios[gear];
             }
-            if (inRange && (!Character.isDigit(chars[i+1]) || (i+1) % lineLength == 0)) {
-                builder.b(i);
-                result.add(builder.build());
-                inRange = false;
+        }
+        return sum;
+    }
+
+    /**
+     * Bitmask over rows [fromRow, toRow) with every cell next to a symbol set, so a number is a part number iff
+     * any bit under its span is set. Symbols in the halo rows just outside the band are taken into account.
+     */
+    private long[] getSymbolAdjacencyMask(List<String> rows, int width, int fromRow, int toRow) {
+        long[] mask = new long[((toRow - fromRow) * width + 63) >>> 6];
+        for (int row = Math.max(0, fromRow - 1); row < Math.min(rows.size(), toRow + 1); row++) {
+            String line = rows.get(row);
+            for (int col = 0; col < width; col++) {
+                if (!isSymbol(line.charAt(col))) {
+                    continue;
+                }
+                for (int r = Math.max(fromRow, row - 1); r <= Math.min(toRow - 1, row + 1); r++) {
+                    for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); c++) {
+                        int bit = (r - fromRow) * width + c;
+                        mask[bit >>> 6] |= 1L << bit;
+                    }
+                }
             }
         }
-        return result;
+        return mask;
     }
 
-    private boolean isPartNumber(Range range, char[] chars, int lineLength) {
-        return getAdjacentParts(range, chars, lineLength).anyMatch(pos -> !Character.isDigit(chars[pos]) && (chars[pos] != '.'));
+    /**
+     * Numbers every gear candidate in rows [fromRow, toRow) from 1 in {@code gearIds}, leaving 0 everywhere else.
+     *
+     * @return the number of gear candidates
+     */
+    private int assignGearIds(List<String> rows, int width, int fromRow, int toRow, int[] gearIds) {
+        int numGears = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            String line = rows.get(row);
+            for (int col = 0; col < width; col++) {
+                if (line.charAt(col) == '*') {
+                    gearIds[(row - fromRow) * width + col] = ++numGears;
+                }
+            }
+        }
+        return numGears;
     }
 
-    private int getSumOfGearRatios(List<Range> numberRanges, char[] chars, int lineLength) {
-        Map<Integer, List<Range>> gearToRangeMap = new HashMap<>();
-        for(Range range: numberRanges) {
-            getAdjacentParts(range, chars, lineLength)
-                    .filter(pos -> chars[pos] == '*')
-                    .forEach(gear -> gearToRangeMap.computeIfAbsent(gear, ArrayList::new).add(range));
+    /**
+     * Calls {@code consumer} for every number in rows [fromRow, toRow) with its row, column span [start, end) and
+     * value.
+     */
+    private void forEachNumber(List<String> rows, int width, int fromRow, int toRow, NumberConsumer consumer) {
+        for (int row = fromRow; row < toRow; row++) {
+            String line = rows.get(row);
+            int col = 0;
+            while (col < width) {
+                if (!Character.isDigit(line.charAt(col))) {
+                    col++;
+                    continue;
+                }
+                int start = col;
+                int value = 0;
+                for (; col < width && Character.isDigit(line.charAt(col)); col++) {
+                    value = value * 10 + (line.charAt(col) - '0');
+                }
+                consumer.accept(row, start, col, value);
+            }
         }
-        return gearToRangeMap.values()
-                .stream()
-                .filter(ranges -> ranges.size() == 2)
-                .map(ranges -> getPartNumber(ranges.get(0), chars) * getPartNumber(ranges.get(1), chars))
-                .reduce(Integer::sum)
-                .orElse(0);
     }
 
-    private Stream<Integer> getAdjacentParts(Range range, char[] chars, int lineLength) {
-        boolean onLeftEdge = (range.a % lineLength) == 0;
-        boolean onRightEdge = (range.b % lineLength) == (lineLength - 1);
-        boolean onTopEdge = range.a < lineLength;
-        boolean onBottomEdge = range.a > (chars.length - lineLength);
-        int maxLeft =  onLeftEdge ? range.a : range.a - 1;
-        int maxRight = onRightEdge ? range.b : range.b + 1;
-        IntStream allPositions = IntStream.empty();
-        if (!onLeftEdge) allPositions = IntStream.concat(allPositions, IntStream.of(maxLeft));
-        if (!onRightEdge) allPositions = IntStream.concat(allPositions, IntStream.of(maxRight));
-        if (!onTopEdge) allPositions = IntStream.concat(allPositions, IntStream.rangeClosed(maxLeft - lineLength, maxRight - lineLength));
-        if (!onBottomEdge) allPositions = IntStream.concat(allPositions, IntStream.rangeClosed(maxLeft + lineLength, maxRight + lineLength));
-        return allPositions.boxed();
+    private boolean isAnySet(long[] mask, int from, int to) {
+        for (int bit = from; bit < to; bit++) {
+            if ((mask[bit >>> 6] & (1L << bit)) != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private int getPartNumber(Range range, char[] chars) {
-        char[] partNumberChars = Arrays.copyOfRange(chars, range.a, range.b + 1);
-        String partNumber = String.valueOf(partNumberChars);
-        return Integer.parseInt(partNumber);
+    private boolean isSymbol(char c) {
+        return !Character.isDigit(c) && c != '.';
     }
 }
@@ -1,59 +1,104 @@
 package foo.bar.aoc2023.solutions;
 
-import org.apache.commons.lang3.tuple.Triple;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
 import java.util.stream.Stream;
 
 @Component
-public class Day4 implements Solution<Integer> {
+public class Day4 implements Solution<Long> {
+
+    /**
+     * The winning and drawn numbers of a card as 128-bit masks, one bit per number, held in two longs each.
+     */
+    private record CardMasks(long winningLow, long winningHigh, long drawnLow, long drawnHigh) {
+
+        int countMatches() {
+            return Day4.countMatches(winningLow, winningHigh, drawnLow, drawnHigh);
+        }
+    }
 
     @Override
-    public Integer part1(Stream<String> input) {
-        return input.map(this::parseCardNumbers)
-                .map(this::getMatches)
+    public Long part1(Stream<String> input) {
+        return input.mapToInt(card -> parseMasks(card).countMatches())
                 .filter(size -> size > 0)
-                .map(size -> 1 << (size - 1))
-                .reduce(Integer::sum)
-                .orElse(0);
+                .mapToLong(size -> 1L << (size - 1))
+                .sum();
     }
 
     @Override
-    public Integer part2(Stream<String> input) {
-        Integer[] matchesByCard = input.map(this::parseCardNumbers)
-                .map(this::getMatches)
-                .toArray(Integer[]::new);
-        Deque<Integer> cardsToProcess = IntStream.range(0, matchesByCard.length)
-                .boxed()
-                .collect(Collectors.toCollection(ArrayDeque::new));
-        var numCards = new int[matchesByCard.length];
-        while (!cardsToProcess.isEmpty()) {
-            int i = cardsToProcess.pop();
-            numCards[i]++;
-            IntStream.rangeClosed(i + 1, i + matchesByCard[i]).forEach(cardsToProcess::push);
+    public Long part2(Stream<String> input) {
+        List<String> cards = input.toList();
+        int numCards = cards.size();
+        long[] winningLow = new long[numCards];
+        long[] winningHigh = new long[numCards];
+        long[] drawnLow = new long[numCards];
+        long[] drawnHigh = new long[numCards];
+        for (int i = 0; i < numCards; i++) {
+            CardMasks masks = parseMasks(cards.get(i));
+            winningLow[i] = masks.winningLow;
+            winningHigh[i] = masks.winningHigh;
+            drawnLow[i] = masks.drawnLow;
+            drawnHigh[i] = masks.drawnHigh;
         }
-        return Arrays.stream(numCards).sum();
+        // copies only ever flow forwards, so each card's count is final by the time it is reached
+        var copies = new long[numCards];
+        Arrays.fill(copies, 1);
+        long total = 0;
+        for (int i = 0; i < numCards; i++) {
+            total += copies[i];
+            int matches = countMatches(winningLow[i], winningHigh[i], drawnLow[i], drawnHigh[i]);
+            for (int j = i + 1; j <= Math.min(numCards - 1, i + matches); j++) {
+                copies[j] += copies[i];
+            }
+        }
+        return total;
     }
 
-    private Integer getMatches(Triple<Integer, Set<Integer>, Set<Integer>> card) {
-        card.getMiddle().retainAll(card.getRight());
-        return card.getMiddle().size();
+    @Override
+    public boolean isStreamable(int part) {
+        return part == 1;
     }
 
-    private Triple<Integer, Set<Integer>, Set<Integer>> parseCardNumbers(String card) {
-        var cardAndLists = card.split(":\\s+");
-        var cardNumber = Integer.parseInt(cardAndLists[0].split("\\s+")[1]);
-        var lists = cardAndLists[1].split("\\s+\\|\\s+");
-        return Triple.of(cardNumber, parseList(lists[0]), parseList(lists[1]));
+    private static int countMatches(long winningLow, long winningHigh, long drawnLow, long drawnHigh) {
+        return Long.bitCount(winningLow & drawnLow) + Long.bitCount(winningHigh & drawnHigh);
     }
 
-    private Set<Integer> parseList(String list) {
-        return Arrays.stream(list.split("\\s+")).map(Integer::parseInt).collect(Collectors.toSet());
+    /**
+     * Parses both lists of a card in one pass (card numbers are below 100). The masks never escape their callers,
+     * so escape analysis can keep them off the heap.
+     */
+    private CardMasks parseMasks(String card) {
+        long winningLow = 0;
+        long winningHigh = 0;
+        long drawnLow = 0;
+        long drawnHigh = 0;
+        boolean drawn = false;
+        int number = -1;
+        for (int i = card.indexOf(':') + 1; i <= card.length(); i++) {
+            char c = i < card.length() ? card.charAt(i) : ' ';
+            if (c >= '0' && c <= '9') {
+                number = Math.max(number, 0) * 10 + (c - '0');
+                continue;
+            }
+            if (number >= 0) {
+                if (number >= 128) {
+                    throw new IllegalArgumentException("Card number out of range: " + card);
+                }
+                long low = number < 64 ? 1L << number : 0;
+                long high = number < 64 ? 0 : 1L << number;
+                if (drawn) {
+                    drawnLow |= low;
+                    drawnHigh |= high;
+                } else {
+                    winningLow |= low;
+                    winningHigh |= high;
+                }
+                number = -1;
+            }
+            drawn |= c == '|';
+        }
+        return new CardMasks(winningLow, winningHigh, drawnLow, drawnHigh);
     }
 }
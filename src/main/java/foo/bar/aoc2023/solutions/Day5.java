@@ -1,118 +1,283 @@
 package foo.bar.aoc2023.solutions;
 
 import lombok.Builder;
-import org.apache.commons.lang3.Range;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 @Component
 public class Day5 implements Solution<Long> {
 
     private enum SeedParseMode { INDIVIDUAL, RANGE }
-    private record Mapping(Range<Long> srcRange, Long mappingOffset){}
+    private record Mapping(long srcMin, long srcMax, long mappingOffset){}
 
     @Builder
     private record CategoryMap(String source, String destination, List<Mapping> mappings){}
 
     @Builder
-    private record Almanac(List<Range<Long>> seeds, List<CategoryMap> maps){}
+    private record Almanac(long[] seedMins, long[] seedMaxs, CompiledAlmanac compiled){}
 
-    @Override
-    public Long part1(Stream<String> input) {
-        Almanac almanac = buildAlmanac(input, SeedParseMode.INDIVIDUAL);
-        return almanac.seeds.stream()
-                .flatMap(seeds -> getLocationRanges(seeds, almanac.maps).stream())
-                .map(Range::getMinimum)
-                .min(Long::compareTo)
-                .orElse(0L);
-    }
+    /**
+     * Seed-to-location mapping compiled from an almanac, answering batches of seed ranges without reparsing. Ranges
+     * are given as columns of inclusive minimum and maximum seeds and are resolved in parallel.
+     */
+    public static final class CompiledAlmanac {
 
-    @Override
-    public Long part2(Stream<String> input) {
-        Almanac almanac = buildAlmanac(input, SeedParseMode.RANGE);
-        return almanac.seeds.stream()
-                .flatMap(seeds -> getLocationRanges(seeds, almanac.maps).stream())
-                .map(Range::getMinimum)
-                .min(Long::compareTo)
-                .orElse(0L);
-    }
+        private final PiecewiseMapping seedToLocation;
+
+        private CompiledAlmanac(PiecewiseMapping seedToLocation) {
+            this.seedToLocation = seedToLocation;
+        }
 
-    private List<Range<Long>> getLocationRanges(Range<Long> seeds, List<CategoryMap> maps) {
-        String currentComponent = "seed";
-        List<Range<Long>> currentRanges = List.of(seeds);
-        while (!"location".equals(currentComponent)) {
-            for (CategoryMap map : maps) {
-                if (map.source.equals(currentComponent)) {
-                    currentComponent = map.destination;
-                    currentRanges = getDestinationRanges(currentRanges, map);
+        /**
+         * Lowest location of each seed range, or {@link Long#MAX_VALUE} for an empty one.
+         */
+        public long[] minLocations(long[] seedMins, long[] seedMaxs) {
+            return IntStream.range(0, seedMins.length)
+                    .parallel()
+                    .mapToLong(i -> seedToLocation.getMinImage(seedMins[i], seedMaxs[i]))
+                    .toArray();
+        }
+
+        /**
+         * Every location reached from any of the seed ranges, as consecutive (min, max) pairs that are sorted,
+         * disjoint and not adjacent to each other.
+         */
+        public long[] locationRanges(long[] seedMins, long[] seedMaxs) {
+            long[][] images = IntStream.range(0, seedMins.length)
+                    .parallel()
+                    .mapToObj(i -> seedToLocation.getImages(seedMins[i], seedMaxs[i]))
+                    .toArray(long[][]::new);
+            int count = Arrays.stream(images).mapToInt(pairs -> pairs.length / 2).sum();
+            long[] mins = new long[count];
+            long[] maxs = new long[count];
+            int index = 0;
+            for (long[] pairs : images) {
+                for (int i = 0; i < pairs.length; i += 2, index++) {
+                    mins[index] = pairs[i];
+                    maxs[index] = pairs[i + 1];
                 }
             }
+            Arrays.parallelSort(mins);
+            Arrays.parallelSort(maxs);
+            // sweep over the sorted bounds, a range of the union opening and closing where coverage leaves zero
+            long[] result = new long[2 * count];
+            int size = 0;
+            int depth = 0;
+            for (int s = 0, e = 0; s < count; ) {
+                // maxs[e] + 1 only overflows when maxs[e] is Long.MAX_VALUE, and then the first test already holds
+                if (mins[s] <= maxs[e] || mins[s] == maxs[e] + 1) {
+                    if (depth++ == 0) {
+                        result[size++] = mins[s];
+                    }
+                    s++;
+                } else {
+                    if (--depth == 0) {
+                        result[size++] = maxs[e];
+                    }
+                    e++;
+                }
+            }
+            if (count > 0) {
+                result[size++] = maxs[count - 1];
+            }
+            return Arrays.copyOf(result, size);
         }
-        return currentRanges;
     }
 
-    private List<Range<Long>> getDestinationRanges(List<Range<Long>> sourceRanges, CategoryMap map) {
-        List<Range<Long>> result = new ArrayList<>();
-        Deque<Range<Long>> pending = new ArrayDeque<>(sourceRanges);
-        while (!pending.isEmpty()) {
-            var inputRange = pending.pop();
-            if (!hasMapping(inputRange, map.mappings)) {
-                result.add(inputRange);
-            } else {
-                for (Mapping mapping : map.mappings) {
-                    Range<Long> mappingSrc = mapping.srcRange;
-                    if (!mappingSrc.isOverlappedBy(inputRange)) {
-                        continue;
-                    } else if (mappingSrc.containsRange(inputRange)) {
-                        long dstMin = inputRange.getMinimum() + mapping.mappingOffset;
-                        long dstMax = inputRange.getMaximum() + mapping.mappingOffset;
-                        result.add(Range.of(dstMin, dstMax));
-                    } else if (inputRange.containsRange(mappingSrc)) {
-                        long dstMin = mappingSrc.getMinimum() + mapping.mappingOffset;
-                        long dstMax = mappingSrc.getMaximum() + mapping.mappingOffset;
-                        result.add(Range.of(dstMin, dstMax));
-                        pending.push(Range.of(inputRange.getMinimum(), mappingSrc.getMinimum() - 1));
-                        pending.push(Range.of(mappingSrc.getMaximum() + 1, inputRange.getMaximum()));
-                    } else if (inputRange.getMinimum() < mappingSrc.getMinimum()) {
-                        long dstMin = mappingSrc.getMinimum() + mapping.mappingOffset;
-                        long dstMax = inputRange.getMaximum() + mapping.mappingOffset;
-                        result.add(Range.of(dstMin, dstMax));
-                        pending.push(Range.of(inputRange.getMinimum(), mappingSrc.getMinimum() - 1));
-                    } else {
-                        long dstMin = inputRange.getMinimum() + mapping.mappingOffset;
-                        long dstMax = mappingSrc.getMaximum() + mapping.mappingOffset;
-                        result.add(Range.of(dstMin, dstMax));
-                        pending.push(Range.of(mappingSrc.getMaximum() + 1, inputRange.getMaximum()));
+    /**
+     * Piecewise-translation over the whole long domain: piece i covers [starts[i], starts[i + 1]) and maps x to
+     * x + offsets[i]. Unmapped values are covered by identity pieces, and adjacent pieces never share an offset.
+     */
+    private static final class PiecewiseMapping {
+
+        private final long[] starts;
+
+        private final long[] offsets;
+
+        private PiecewiseMapping(long[] starts, long[] offsets) {
+            this.starts = starts;
+            this.offsets = offsets;
+        }
+
+        static PiecewiseMapping identity() {
+            return new PiecewiseMapping(new long[]{Long.MIN_VALUE}, new long[]{0});
+        }
+
+        static PiecewiseMapping of(List<Mapping> mappings) {
+            var builder = new Pieces();
+            long uncovered = Long.MIN_VALUE;
+            for (Mapping mapping : mappings.stream().sorted(Comparator.comparingLong(Mapping::srcMin)).toList()) {
+                if (mapping.srcMin > mapping.srcMax) {
+                    continue;
+                }
+                if (mapping.srcMin < uncovered) {
+                    throw new IllegalArgumentException("Overlapping mappings at " + mapping.srcMin);
+                }
+                if (mapping.srcMin > uncovered) {
+                    builder.add(uncovered, 0);
+                }
+                builder.add(mapping.srcMin, mapping.mappingOffset);
+                uncovered = mapping.srcMax + 1;
+            }
+            builder.add(uncovered, 0);
+            return builder.build();
+        }
+
+        /**
+         * Mapping applying this one and then {@code next}: every piece is split wherever its image crosses a piece
+         * boundary of {@code next}.
+         */
+        PiecewiseMapping andThen(PiecewiseMapping next) {
+            var builder = new Pieces();
+            for (int i = 0; i < starts.length; i++) {
+                long offset = offsets[i];
+                long imageMax = getMax(i) + offset;
+                long image = starts[i] + offset;
+                for (int j = next.indexOf(image); ; j++) {
+                    builder.add(image - offset, offset + next.offsets[j]);
+                    if (next.getMax(j) >= imageMax) {
+                        break;
                     }
+                    image = next.starts[j + 1];
                 }
             }
+            return builder.build();
         }
-        return result;
+
+        /**
+         * Lowest image of the values in [min, max], visiting only the pieces that range overlaps.
+         */
+        long getMinImage(long min, long max) {
+            if (min > max) {
+                return Long.MAX_VALUE;
+            }
+            long result = Long.MAX_VALUE;
+            for (int i = indexOf(min); i < starts.length && starts[i] <= max; i++) {
+                result = Math.min(result, Math.max(min, starts[i]) + offsets[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Images of the values in [min, max] as consecutive (min, max) pairs, one per piece the range overlaps.
+         */
+        long[] getImages(long min, long max) {
+            if (min > max) {
+                return new long[0];
+            }
+            int first = indexOf(min);
+            long[] result = new long[2 * (indexOf(max) - first + 1)];
+            for (int i = first, k = 0; k < result.length; i++, k += 2) {
+                result[k] = Math.max(min, starts[i]) + offsets[i];
+                result[k + 1] = Math.min(max, getMax(i)) + offsets[i];
+            }
+            return result;
+        }
+
+        private int indexOf(long value) {
+            int index = Arrays.binarySearch(starts, value);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        private long getMax(int piece) {
+            return piece + 1 < starts.length ? starts[piece + 1] - 1 : Long.MAX_VALUE;
+        }
+
+        private static final class Pieces {
+
+            private long[] starts = new long[16];
+
+            private long[] offsets = new long[16];
+
+            private int size;
+
+            void add(long start, long offset) {
+                if (size > 0 && offsets[size - 1] == offset) {
+                    return;
+                }
+                if (size == starts.length) {
+                    starts = Arrays.copyOf(starts, 2 * size);
+                    offsets = Arrays.copyOf(offsets, 2 * size);
+                }
+                starts[size] = start;
+                offsets[size++] = offset;
+            }
+
+            PiecewiseMapping build() {
+                return new PiecewiseMapping(Arrays.copyOf(starts, size), Arrays.copyOf(offsets, size));
+            }
+        }
+    }
+
+    @Override
+    public Long part1(Stream<String> input) {
+        return getMinLocation(buildAlmanac(input, SeedParseMode.INDIVIDUAL));
+    }
+
+    @Override
+    public Long part2(Stream<String> input) {
+        return getMinLocation(buildAlmanac(input, SeedParseMode.RANGE));
+    }
+
+    @Override
+    public boolean isParallel(int part) {
+        return true;
+    }
+
+    /**
+     * Compiles the maps of an almanac for repeated seed range queries, its own seeds are ignored.
+     */
+    public CompiledAlmanac compile(Stream<String> input) {
+        return buildAlmanac(input, SeedParseMode.INDIVIDUAL).compiled;
     }
 
-    private boolean hasMapping(Range<Long> input, List<Mapping> mappings) {
-        return mappings.stream().map(Mapping::srcRange).anyMatch(r -> r.isOverlappedBy(input));
+    private long getMinLocation(Almanac almanac) {
+        return Arrays.stream(almanac.compiled.minLocations(almanac.seedMins, almanac.seedMaxs))
+                .min()
+                .orElse(0L);
+    }
+
+    /**
+     * Composes the category maps from seed to location, following them by name once.
+     */
+    private PiecewiseMapping composeSeedToLocation(List<CategoryMap> maps) {
+        Map<String, CategoryMap> mapsBySource = maps.stream()
+                .collect(Collectors.toMap(CategoryMap::source, Function.identity()));
+        PiecewiseMapping result = PiecewiseMapping.identity();
+        for (String component = "seed"; !"location".equals(component); ) {
+            CategoryMap map = mapsBySource.get(component);
+            if (map == null) {
+                throw new IllegalArgumentException("No map from " + component);
+            }
+            result = result.andThen(PiecewiseMapping.of(map.mappings));
+            component = map.destination;
+        }
+        return result;
     }
 
     private Almanac buildAlmanac(Stream<String> lines, SeedParseMode seedParseMode) {
         Almanac.AlmanacBuilder almanacBuilder = Almanac.builder();
         String input = lines.collect(Collectors.joining("\n"));
         String[] lineArray = input.split("\n\n");
-        almanacBuilder.seeds(buildSeedRanges(lineArray[0], seedParseMode));
-        almanacBuilder.maps(
+        long[] seeds = buildSeedRanges(lineArray[0], seedParseMode);
+        almanacBuilder.seedMins(IntStream.range(0, seeds.length / 2).mapToLong(i -> seeds[2 * i]).toArray());
+        almanacBuilder.seedMaxs(IntStream.range(0, seeds.length / 2).mapToLong(i -> seeds[2 * i + 1]).toArray());
+        almanacBuilder.compiled(new CompiledAlmanac(composeSeedToLocation(
                 Arrays.stream(lineArray, 1, lineArray.length)
                         .map(line -> line.split("\n"))
                         .map(this::buildCategoryMap)
                         .toList()
-        );
+        )));
         return almanacBuilder.build();
     }
 
@@ -135,23 +300,26 @@ public class Day5 implements Solution<Long> {
         long srcIni = Long.parseLong(split[1]);
         long dstIni = Long.parseLong(split[0]);
         long rngLen = Long.parseLong(split[2]);
-        Range<Long> srcRange = Range.of(srcIni, srcIni + rngLen - 1);
-        return new Mapping(srcRange, dstIni - srcIni);
+        return new Mapping(srcIni, srcIni + rngLen - 1, dstIni - srcIni);
     }
 
-    private List<Range<Long>> buildSeedRanges(String input, SeedParseMode seedParseMode) {
+    /**
+     * Seed ranges as consecutive (min, max) pairs.
+     */
+    private long[] buildSeedRanges(String input, SeedParseMode seedParseMode) {
         String[] split = input.split("\\s");
         return switch (seedParseMode) {
             case INDIVIDUAL -> Arrays.stream(split, 1, split.length)
-                    .map(Long::parseLong)
-                    .map(seed -> Range.of(seed, seed))
-                    .toList();
+                    .mapToLong(Long::parseLong)
+                    .flatMap(seed -> LongStream.of(seed, seed))
+                    .toArray();
             case RANGE -> {
-                List<Range<Long>> result = new ArrayList<>();
+                long[] result = new long[split.length - 1];
                 for (int i = 1; i < split.length; i += 2) {
                     long iniSeed = Long.parseLong(split[i]);
                     long count = Long.parseLong(split[i + 1]);
-                    result.add(Range.of(iniSeed, iniSeed + count + 1));
+                    result[i - 1] = iniSeed;
+                    result[i] = iniSeed + count + 1;
                 }
                 yield result;
             }
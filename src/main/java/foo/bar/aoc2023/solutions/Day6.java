@@ -2,64 +2,159 @@ package foo.bar.aoc2023.solutions;
 
 import org.springframework.stereotype.Component;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.stream.IntStream;
-import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 @Component
 public class Day6 implements Solution<Long> {
 
-    private record Race(long time, long distance){}
+    /**
+     * Largest value whose square fits in a long.
+     */
+    private static final long MAX_LONG_ROOT = 3_037_000_499L;
 
     @Override
     public Long part1(Stream<String> input) {
-        return parseSeparateRaces(input)
-                .map(this::getNumWinningWays)
-                .reduce((a, b) -> a * b)
-                .orElse(0L);
+        long[][] races = parseSeparateRaces(input);
+        return races[0].length == 0 ? 0L : getWinningWaysProduct(races[0], races[1]).longValueExact();
     }
 
     @Override
     public Long part2(Stream<String> input) {
-        return getNumWinningWays(parseOneRace(input));
+        var lines = input.toList();
+        return getNumWinningWays(parseLineAsLong(lines.get(0)), parseLineAsLong(lines.get(1)));
     }
 
-    private long getNumWinningWays(Race race) {
-        long winFirst = LongStream.rangeClosed(0, race.time)
-                .dropWhile(wait -> losesRace(wait, race))
-                .findFirst()
-                .getAsLong();
-        long winLast = LongStream.rangeClosed(0, race.time)
-                .map(reminder -> race.time - reminder)
-                .dropWhile(wait -> losesRace(wait, race))
-                .findFirst()
-                .getAsLong();
-        return winLast - winFirst + 1;
+    @Override
+    public boolean isStreamable(int part) {
+        return part == 1;
     }
 
-    private boolean losesRace(long wait, Race race) {
-        return ((race.time - wait) * wait) <= race.distance;
+    @Override
+    public boolean isParallel(int part) {
+        return part == 1;
     }
 
-    private Stream<Race> parseSeparateRaces(Stream<String> input) {
-        var inputs = input.map(line -> line.split(":")[1].trim())
-                .map(digits -> digits.split("\\s+"))
-                .map(digits -> Arrays.stream(digits).map(Long::parseLong).toArray(Long[]::new))
-                .toList();
-        var times = inputs.get(0);
-        var distances = inputs.get(1);
-        return IntStream.range(0, times.length)
-                .boxed()
-                .map(i -> new Race(times[i], distances[i]));
+    /**
+     * Number of winning ways of each race in a table given as columns of times and distances, scored in parallel
+     * chunks.
+     */
+    public long[] getNumWinningWays(long[] times, long[] distances) {
+        long[] result = new long[times.length];
+        int chunkSize = Chunking.size(Chunking.RACES);
+        IntStream.range(0, (times.length + chunkSize - 1) / chunkSize)
+                .parallel()
+                .forEach(chunk -> {
+                    for (int i = chunk * chunkSize; i < Math.min(times.length, (chunk + 1) * chunkSize); i++) {
+                        result[i] = getNumWinningWays(times[i], distances[i]);
+                    }
+                });
+        return result;
     }
 
-    private Race parseOneRace(Stream<String> input) {
-        var lines = input.toList();
-        return new Race(parseLineAsLong(lines.get(0)), parseLineAsLong(lines.get(1)));
+    /**
+     * Product of the number of winning ways of every race in a table, exact however large it gets. Each chunk
+     * multiplies in a long until that overflows and only then carries on in a BigInteger.
+     */
+    public BigInteger getWinningWaysProduct(long[] times, long[] distances) {
+        int chunkSize = Chunking.size(Chunking.RACES);
+        return IntStream.range(0, (times.length + chunkSize - 1) / chunkSize)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int end = Math.min(times.length, (chunk + 1) * chunkSize);
+                    long product = 1;
+                    for (int i = chunk * chunkSize; i < end; i++) {
+                        long ways = getNumWinningWays(times[i], distances[i]);
+                        long high = Math.multiplyHigh(product, ways);
+                        if (high != 0 || product * ways < 0) {
+                            BigInteger exact = BigInteger.valueOf(product);
+                            for (; i < end; i++) {
+                                exact = exact.multiply(BigInteger.valueOf(getNumWinningWays(times[i], distances[i])));
+                            }
+                            return exact;
+                        }
+                        product *= ways;
+                    }
+                    return BigInteger.valueOf(product);
+                })
+                .reduce(BigInteger.ONE, BigInteger::multiply);
+    }
+
+    /**
+     * Waits w winning the race are those with w * (time - w) > distance, an open interval between the roots of
+     * w^2 - time * w + distance that is symmetric around time / 2. The first winning wait is estimated from the
+     * exact integer square root of the discriminant and nudged onto the boundary, the last one mirrors it.
+     */
+    public long getNumWinningWays(long time, long distance) {
+        long discriminant;
+        try {
+            discriminant = Math.subtractExact(Math.multiplyExact(time, time), Math.multiplyExact(4, distance));
+        } catch (ArithmeticException e) {
+            return getNumWinningWaysExact(BigInteger.valueOf(time), BigInteger.valueOf(distance));
+        }
+        if (discriminant < 0) {
+            return 0;
+        }
+        long first = Math.max(0, (time - sqrt(discriminant)) / 2);
+        while (first <= time - first && losesRace(first, time, distance)) {
+            first++;
+        }
+        while (first > 0 && !losesRace(first - 1, time, distance)) {
+            first--;
+        }
+        return first <= time - first ? time - 2 * first + 1 : 0;
+    }
+
+    private long getNumWinningWaysExact(BigInteger time, BigInteger distance) {
+        BigInteger discriminant = time.multiply(time).subtract(distance.shiftLeft(2));
+        if (discriminant.signum() < 0) {
+            return 0;
+        }
+        BigInteger first = time.subtract(discriminant.sqrt()).shiftRight(1).max(BigInteger.ZERO);
+        while (first.compareTo(time.subtract(first)) <= 0 && losesRace(first, time, distance)) {
+            first = first.add(BigInteger.ONE);
+        }
+        while (first.signum() > 0 && !losesRace(first.subtract(BigInteger.ONE), time, distance)) {
+            first = first.subtract(BigInteger.ONE);
+        }
+        BigInteger last = time.subtract(first);
+        return first.compareTo(last) <= 0 ? last.subtract(first).add(BigInteger.ONE).longValueExact() : 0;
+    }
+
+    /**
+     * Floor of the square root of a non-negative long, correcting the floating point estimate.
+     */
+    private long sqrt(long value) {
+        long root = Math.min((long) Math.sqrt(value), MAX_LONG_ROOT);
+        while (root * root > value) {
+            root--;
+        }
+        while (root < MAX_LONG_ROOT && (root + 1) * (root + 1) <= value) {
+            root++;
+        }
+        return root;
+    }
+
+    private boolean losesRace(long wait, long time, long distance) {
+        return ((time - wait) * wait) <= distance;
+    }
+
+    private boolean losesRace(BigInteger wait, BigInteger time, BigInteger distance) {
+        return time.subtract(wait).multiply(wait).compareTo(distance) <= 0;
+    }
+
+    /**
+     * The time and distance columns of a race table.
+     */
+    private long[][] parseSeparateRaces(Stream<String> input) {
+        return input.map(line -> line.split(":")[1].trim())
+                .map(digits -> Arrays.stream(digits.split("\\s+")).mapToLong(Long::parseLong).toArray())
+                .toArray(long[][]::new);
     }
 
-    private Long parseLineAsLong(String input) {
+    private long parseLineAsLong(String input) {
         var digits = input.split(":")[1];
         return Long.parseLong(digits.replace(" ", ""));
     }
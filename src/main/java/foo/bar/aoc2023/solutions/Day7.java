@@ -1,124 +1,537 @@
 package foo.bar.aoc2023.solutions;
 
+import lombok.SneakyThrows;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.LongStream;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Stream;
 
 @Component
 public class Day7 implements Solution<Long> {
 
-    private record Hand(Character[] cards, int bid){}
+    private enum CardComparisonMode {
+        POKER("AKQJT98765432"),
+        JOKER("AKQT98765432J");
+
+        /**
+         * Rank of every card by its character, 0 for the weakest card and -1 for anything that is not a card.
+         */
+        private final int[] ranks = new int[128];
+
+        CardComparisonMode(String cardStrength) {
+            Arrays.fill(ranks, -1);
+            for (int i = 0; i < cardStrength.length(); i++) {
+                ranks[cardStrength.charAt(i)] = cardStrength.length() - 1 - i;
+            }
+        }
+    }
 
-    private enum CardComparisonMode {POKER, JOKER}
     private enum HandType {FIVE_OF_A_KIND, FOUR_OF_A_KIND, FULL_HOUSE, THREE_OF_A_KIND, TWO_PAIR, ONE_PAIR, HIGH_CARD}
 
-    private static final String CARD_STRENGTH_POKER = "AKQJT98765432";
-    private static final String CARD_STRENGTH_JOKER = "AKQT98765432J";
+    private static final int CARDS_PER_HAND = 5;
+
+    /**
+     * Bits of a hand key: four per card rank, below three for the hand type.
+     */
+    private static final int KEY_BITS = 4 * CARDS_PER_HAND + 3;
+
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * Share of the maximum heap that the runs in memory may take, each hand costing 16 bytes while it is sorted: 8
+     * in its run and 8 in the radix sort buffer.
+     */
+    private static final int HEAP_SHARE = 4;
+
+    private static final int BYTES_PER_SORTED_HAND = 2 * Long.BYTES;
+
+    private static final int MAX_RUN_SIZE = Integer.MAX_VALUE - 8;
+
+    private record SpilledRun(Path file, int size){}
+
+    /**
+     * Sorted run being merged, read either from memory or back from its spill file.
+     */
+    private static final class Run implements Closeable {
+
+        private final int order;
+
+        private final long[] hands;
+
+        private final DataInputStream in;
+
+        private int remaining;
+
+        private int position;
 
-    private final Comparator<Hand> pokerhandTypeComparator = Comparator.comparing(o -> Day7.getHandType(o, CardComparisonMode.POKER));
-    private final Comparator<Hand> jokerhandTypeComparator = Comparator.comparing(o -> Day7.getHandType(o, CardComparisonMode.JOKER));
+        private long current;
 
-    private final Comparator<Hand> pokerCardComparator = (o1, o2) -> compare(o1, o2, CardComparisonMode.POKER);
-    private final Comparator<Hand> jokerCardComparator = (o1, o2) -> compare(o1, o2, CardComparisonMode.JOKER);
+        @SneakyThrows
+        Run(int order, SpilledRun spilled) {
+            this.order = order;
+            this.hands = null;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spilled.file), 1 << 16));
+            this.remaining = spilled.size;
+        }
+
+        Run(int order, long[] hands) {
+            this.order = order;
+            this.hands = hands;
+            this.in = null;
+            this.remaining = hands.length;
+        }
+
+        @SneakyThrows
+        boolean advance() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            current = hands != null ? hands[position++] : in.readLong();
+            return true;
+        }
+
+        @Override
+        @SneakyThrows
+        public void close() {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Live ranking of distinct hands under both orderings, keeping the total winnings of each up to date as hands
+     * are added and removed, in O(log n) per update. Memory grows with the hands seen, one page of possible hands
+     * at a time, up to about 62 MB once every page of both orderings holds a hand.
+     */
+    public static final class Leaderboard {
+
+        private final Ranking poker = new Ranking();
+
+        private final Ranking joker = new Ranking();
+
+        private int size;
+
+        private Leaderboard() {}
+
+        public int size() {
+            return size;
+        }
 
-    private final Comparator<Hand> pokerComparator = pokerhandTypeComparator.thenComparing(pokerCardComparator);
-    private final Comparator<Hand> jokerComparator = jokerhandTypeComparator.thenComparing(jokerCardComparator);
+        public long getPokerWinnings() {
+            return poker.totalWinnings;
+        }
+
+        public long getJokerWinnings() {
+            return joker.totalWinnings;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the hand is already on the leaderboard
+         */
+        public void add(CharSequence cards, int bid) {
+            int index = getIndex(cards, CardComparisonMode.POKER);
+            if (bid < 0) {
+                throw new IllegalArgumentException("Negative bid: " + bid);
+            }
+            if (poker.contains(index)) {
+                throw new IllegalArgumentException("Hand already ranked: " + cards);
+            }
+            size++;
+            poker.add(index, bid);
+            joker.add(getIndex(cards, CardComparisonMode.JOKER), bid);
+        }
+
+        /**
+         * @return the bid of the removed hand
+         * @throws IllegalArgumentException if the hand is not on the leaderboard
+         */
+        public int remove(CharSequence cards) {
+            int index = getIndex(cards, CardComparisonMode.POKER);
+            if (!poker.contains(index)) {
+                throw new IllegalArgumentException("Hand not ranked: " + cards);
+            }
+            int bid = poker.getBid(index);
+            size--;
+            poker.remove(index, bid);
+            joker.remove(getIndex(cards, CardComparisonMode.JOKER), bid);
+            return bid;
+        }
+
+        /**
+         * Dense index of a hand that preserves the order of its key: the type and then every card rank as digits in
+         * base 13.
+         */
+        private static int getIndex(CharSequence cards, CardComparisonMode mode) {
+            if (cards.length() != CARDS_PER_HAND) {
+                throw new IllegalArgumentException("Not a hand: " + cards);
+            }
+            int key = encodeHand(cards, mode);
+            int index = key >>> (4 * CARDS_PER_HAND);
+            for (int shift = 4 * (CARDS_PER_HAND - 1); shift >= 0; shift -= 4) {
+                index = index * Ranking.CARDS + (key >>> shift & 0xF);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Fenwick trees over the dense hand indices, one counting hands and one summing bids, so that the rank of a hand
+     * and the bids of the hands above it are prefix sums. The indices are split in pages, each with its own trees
+     * allocated when its first hand is ranked, under trees over the page totals.
+     */
+    private static final class Ranking {
+
+        private static final int CARDS = 13;
+
+        private static final int SIZE = HandType.values().length * (int) Math.pow(CARDS, CARDS_PER_HAND);
+
+        private static final int PAGE_BITS = 10;
+
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+        private static final int PAGES = (SIZE + PAGE_SIZE - 1) >>> PAGE_BITS;
+
+        private final int[] pageCounts = new int[PAGES + 1];
+
+        private final long[] pageBidSums = new long[PAGES + 1];
+
+        private final int[][] counts = new int[PAGES][];
+
+        private final long[][] bidSums = new long[PAGES][];
+
+        private long totalBids;
+
+        private long totalWinnings;
+
+        /**
+         * The new hand takes the rank after every weaker hand and pushes each stronger hand up by one.
+         */
+        void add(int index, int bid) {
+            totalWinnings += (countBelow(index) + 1) * bid + totalBids - bidsBelow(index + 1);
+            update(index, 1, bid);
+            totalBids += bid;
+        }
+
+        void remove(int index, int bid) {
+            update(index, -1, -bid);
+            totalBids -= bid;
+            totalWinnings -= (countBelow(index) + 1) * bid + totalBids - bidsBelow(index);
+        }
+
+        boolean contains(int index) {
+            return countBelow(index + 1) > countBelow(index);
+        }
+
+        /**
+         * Bid of the hand at {@code index}, which must be ranked.
+         */
+        int getBid(int index) {
+            return (int) (bidsBelow(index + 1) - bidsBelow(index));
+        }
+
+        private void update(int index, int count, long bid) {
+            int page = index >>> PAGE_BITS;
+            if (counts[page] == null) {
+                counts[page] = new int[PAGE_SIZE + 1];
+                bidSums[page] = new long[PAGE_SIZE + 1];
+            }
+            int[] pageCount = counts[page];
+            long[] pageBidSum = bidSums[page];
+            for (int i = (index & PAGE_SIZE - 1) + 1; i <= PAGE_SIZE; i += i & -i) {
+                pageCount[i] += count;
+                pageBidSum[i] += bid;
+            }
+            for (int i = page + 1; i <= PAGES; i += i & -i) {
+                pageCounts[i] += count;
+                pageBidSums[i] += bid;
+            }
+        }
+
+        /**
+         * Number of hands with an index below {@code index}.
+         */
+        private long countBelow(int index) {
+            int page = index >>> PAGE_BITS;
+            long result = 0;
+            for (int i = page; i > 0; i -= i & -i) {
+                result += pageCounts[i];
+            }
+            int[] pageCount = page < PAGES ? counts[page] : null;
+            if (pageCount != null) {
+                for (int i = index & PAGE_SIZE - 1; i > 0; i -= i & -i) {
+                    result += pageCount[i];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Sum of the bids of the hands with an index below {@code index}.
+         */
+        private long bidsBelow(int index) {
+            int page = index >>> PAGE_BITS;
+            long result = 0;
+            for (int i = page; i > 0; i -= i & -i) {
+                result += pageBidSums[i];
+            }
+            long[] pageBidSum = page < PAGES ? bidSums[page] : null;
+            if (pageBidSum != null) {
+                for (int i = index & PAGE_SIZE - 1; i > 0; i -= i & -i) {
+                    result += pageBidSum[i];
+                }
+            }
+            return result;
+        }
+    }
 
     @Override
     public Long part1(Stream<String> input) {
-        var sortedHands = input.map(this::parseHand)
-                .sorted(pokerComparator)
-                .toList();
-        return LongStream.range(0, sortedHands.size())
-                .map(i -> sortedHands.get((int) i).bid * (sortedHands.size() - i))
-                .reduce(Long::sum)
-                .orElse(0L);
+        return getTotalWinnings(input, CardComparisonMode.POKER);
     }
 
     @Override
     public Long part2(Stream<String> input) {
-        var sortedHands = input.map(this::parseHand)
-                .sorted(jokerComparator)
-                .toList();
-        return LongStream.range(0, sortedHands.size())
-                .map(i -> sortedHands.get((int) i).bid * (sortedHands.size() - i))
-                .reduce(Long::sum)
-                .orElse(0L);
-    }
-
-    private Hand parseHand(String input) {
-        var split = input.split(" ");
-        var cardChars = split[0].toCharArray();
-        var cards = IntStream.range(0, cardChars.length).mapToObj(i -> cardChars[i]).toArray(Character[]::new);
-        var bid = Integer.parseInt(split[1]);
-        return new Hand(cards, bid);
-    }
-
-    private static int compare(Hand o1, Hand o2, CardComparisonMode mode) {
-        var strength = CardComparisonMode.POKER.equals(mode) ? CARD_STRENGTH_POKER : CARD_STRENGTH_JOKER;
-        return IntStream.range(0, o1.cards.length)
-                .map(i -> Integer.compare(strength.indexOf(o1.cards[i]), strength.indexOf(o2.cards[i])))
-                .filter(comp -> comp != 0)
-                .findFirst()
-                .orElse(0);
-    }
-
-    private static HandType getHandType(Hand hand, CardComparisonMode mode) {
-        var groups = getCardCounts(hand, mode)
-                .values()
-                .stream()
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-        if (groups.containsKey(5L)) {
-            return HandType.FIVE_OF_A_KIND;
-        } else if (groups.containsKey(4L)) {
-            return HandType.FOUR_OF_A_KIND;
-        } else if (groups.keySet().containsAll(Set.of(3L, 2L))) {
-            return HandType.FULL_HOUSE;
-        } else if (groups.containsKey(3L)) {
-            return HandType.THREE_OF_A_KIND;
-        } else if (groups.containsKey(2L) && groups.get(2L) == 2L) {
-            return HandType.TWO_PAIR;
-        } else if (groups.containsKey(2L)) {
-            return HandType.ONE_PAIR;
-        } else {
-            return HandType.HIGH_CARD;
-        }
-    }
-
-    private static Map<Character, Long> getCardCounts(Hand hand, CardComparisonMode mode) {
-        var cardCounts = Arrays.stream(hand.cards)
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-        return switch (mode) {
-            case POKER -> cardCounts;
-            case JOKER -> getStrongestCardCount(cardCounts);
+        return getTotalWinnings(input, CardComparisonMode.JOKER);
+    }
+
+    @Override
+    public boolean isStreamable(int part) {
+        return true;
+    }
+
+    @Override
+    public boolean isParallel(int part) {
+        return true;
+    }
+
+    /**
+     * Leaderboard of the hands of an input, to be kept up to date online.
+     *
+     * @throws IllegalArgumentException if the input repeats a hand
+     */
+    public Leaderboard buildLeaderboard(Stream<String> input) {
+        Leaderboard leaderboard = new Leaderboard();
+        input.forEach(line -> leaderboard.add(line.subSequence(0, CARDS_PER_HAND),
+                Integer.parseInt(line, CARDS_PER_HAND + 1, line.length(), 10)));
+        return leaderboard;
+    }
+
+    /**
+     * Reads the hands in runs of at most {@link #getRunSize} hands. If the input does not fit in a single run, every
+     * full run is sorted and spilled in the background on the pool solving the part while the next one is read, the
+     * number of runs in flight bounded by the pool's parallelism, and the spilled runs are then merged with the last
+     * one, still in memory.
+     */
+    private long getTotalWinnings(Stream<String> input, CardComparisonMode mode) {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        int runSize = getRunSize(pool.getParallelism());
+        PrimitiveIterator.OfLong hands = input.mapToLong(line -> parseHand(line, mode)).iterator();
+        List<CompletableFuture<SpilledRun>> spilledRuns = new ArrayList<>();
+        try {
+            long[] run = readRun(hands, runSize);
+            while (hands.hasNext()) {
+                long[] fullRun = run;
+                spilledRuns.add(CompletableFuture.supplyAsync(() -> spill(sortRun(fullRun)), pool));
+                int pending = spilledRuns.size() - pool.getParallelism();
+                if (pending > 0) {
+                    spilledRuns.get(pending - 1).join();
+                }
+                run = readRun(hands, runSize);
+            }
+            long[] lastRun = sortRun(run);
+            if (spilledRuns.isEmpty()) {
+                long total = 0;
+                for (int i = 0; i < lastRun.length; i++) {
+                    total += (i + 1) * getBid(lastRun[i]);
+                }
+                return total;
+            }
+            List<Run> runs = new ArrayList<>();
+            try {
+                for (int i = 0; i < spilledRuns.size(); i++) {
+                    runs.add(new Run(i, spilledRuns.get(i).join()));
+                }
+                runs.add(new Run(runs.size(), lastRun));
+                return mergeTotalWinnings(runs);
+            } finally {
+                runs.forEach(Run::close);
+            }
+        } finally {
+            spilledRuns.forEach(spilled -> spilled.thenAccept(Day7::delete));
+        }
+    }
+
+    /**
+     * As many hands as fit in a share of the heap alongside the other runs in flight: one sorted by each worker of the
+     * pool and one being read.
+     */
+    private static int getRunSize(int parallelism) {
+        long budget = Runtime.getRuntime().maxMemory() / HEAP_SHARE;
+        long perRun = budget / BYTES_PER_SORTED_HAND / (parallelism + 1L);
+        return Chunking.size((int) Math.max(1, Math.min(MAX_RUN_SIZE, perRun)));
+    }
+
+    private static long[] readRun(PrimitiveIterator.OfLong hands, int runSize) {
+        long[] run = new long[Math.min(runSize, 1 << 10)];
+        int size = 0;
+        while (size < runSize && hands.hasNext()) {
+            if (size == run.length) {
+                run = Arrays.copyOf(run, (int) Math.min(runSize, 2L * size));
+            }
+            run[size++] = hands.nextLong();
+        }
+        return size < run.length ? Arrays.copyOf(run, size) : run;
+    }
+
+    /**
+     * Sorts a run so that equal hands rank higher the earlier they come, by sorting them in reverse input order.
+     */
+    private static long[] sortRun(long[] hands) {
+        for (int i = 0, j = hands.length - 1; i < j; i++, j--) {
+            long hand = hands[i];
+            hands[i] = hands[j];
+            hands[j] = hand;
+        }
+        return sortByKey(hands);
+    }
+
+    /**
+     * K-way merge of sorted runs accumulating rank times bid. Equal hands from later runs come first, in line with
+     * the order within each run.
+     */
+    private static long mergeTotalWinnings(List<Run> runs) {
+        PriorityQueue<Run> queue = new PriorityQueue<>(Comparator.<Run>comparingLong(run -> run.current >>> 32)
+                .thenComparingInt(run -> -run.order));
+        for (Run run : runs) {
+            if (run.advance()) {
+                queue.add(run);
+            }
+        }
+        long total = 0;
+        for (long rank = 1; !queue.isEmpty(); rank++) {
+            Run run = queue.poll();
+            total += rank * getBid(run.current);
+            if (run.advance()) {
+                queue.add(run);
+            }
+        }
+        return total;
+    }
+
+    @SneakyThrows
+    private static SpilledRun spill(long[] hands) {
+        Path file = Files.createTempFile("day7-run", ".bin");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (long hand : hands) {
+                out.writeLong(hand);
+            }
+        }
+        return new SpilledRun(file, hands.length);
+    }
+
+    @SneakyThrows
+    private static void delete(SpilledRun spilled) {
+        Files.deleteIfExists(spilled.file);
+    }
+
+    /**
+     * A hand packed into a long, its key in the high word and its bid in the low word, zero-extended so that a
+     * negative bid leaves the key intact.
+     */
+    private long parseHand(String input, CardComparisonMode mode) {
+        int bid = Integer.parseInt(input, CARDS_PER_HAND + 1, input.length(), 10);
+        return (long) encodeHand(input, mode) << 32 | Integer.toUnsignedLong(bid);
+    }
+
+    private static long getBid(long hand) {
+        return (int) hand;
+    }
+
+    /**
+     * Key ordering hands from weakest to strongest: the hand type above the rank of each card in 4 bits, first
+     * card highest. Card counts are tallied in 4-bit fields of a long, one per rank.
+     */
+    private static int encodeHand(CharSequence cards, CardComparisonMode mode) {
+        int key = 0;
+        long counts = 0;
+        for (int i = 0; i < CARDS_PER_HAND; i++) {
+            char card = cards.charAt(i);
+            int rank = card < mode.ranks.length ? mode.ranks[card] : -1;
+            if (rank < 0) {
+                throw new IllegalArgumentException("Not a card: " + card);
+            }
+            key = key << 4 | rank;
+            counts += 1L << (4 * rank);
+        }
+        int jokers = 0;
+        if (mode == CardComparisonMode.JOKER) {
+            jokers = (int) (counts & 0xF);
+            counts &= ~0xFL;
+        }
+        int largestGroup = 0;
+        int groups = 0;
+        for (; counts != 0; counts >>>= 4) {
+            int count = (int) (counts & 0xF);
+            if (count > 0) {
+                groups++;
+                largestGroup = Math.max(largestGroup, count);
+            }
+        }
+        HandType type = getHandType(largestGroup + jokers, Math.max(groups, 1));
+        return (HandType.values().length - 1 - type.ordinal()) << (4 * CARDS_PER_HAND) | key;
+    }
+
+    private static HandType getHandType(int largestGroup, int groups) {
+        return switch (largestGroup) {
+            case 5 -> HandType.FIVE_OF_A_KIND;
+            case 4 -> HandType.FOUR_OF_A_KIND;
+            case 3 -> groups == 2 ? HandType.FULL_HOUSE : HandType.THREE_OF_A_KIND;
+            case 2 -> groups == 3 ? HandType.TWO_PAIR : HandType.ONE_PAIR;
+            default -> HandType.HIGH_CARD;
         };
     }
 
-    private static Map<Character, Long> getStrongestCardCount(Map<Character, Long> cardCounts) {
-        if (cardCounts.containsKey('J')) {
-            var jokerCounts = new HashMap<>(cardCounts);
-            char highestCountCard = jokerCounts.entrySet()
-                    .stream()
-                    .filter(e -> e.getKey() != 'J')
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse('J');
-            long highestCount = jokerCounts.get(highestCountCard);
-            if (highestCountCard != 'J') {
-                jokerCounts.replace(highestCountCard, highestCount + jokerCounts.remove('J'));
+    /**
+     * Stable LSD radix sort of packed hands by key, leaving hands with equal keys in input order.
+     *
+     * @return the sorted hands, either {@code hands} itself or a new array
+     */
+    private static long[] sortByKey(long[] hands) {
+        long[] buffer = new long[hands.length];
+        for (int shift = 32; shift < 32 + KEY_BITS; shift += RADIX_BITS) {
+            int[] offsets = new int[(1 << RADIX_BITS) + 1];
+            for (long hand : hands) {
+                offsets[(int) (hand >>> shift) & ((1 << RADIX_BITS) - 1)]++;
+            }
+            for (int digit = 0, offset = 0; digit < offsets.length; digit++) {
+                int count = offsets[digit];
+                offsets[digit] = offset;
+                offset += count;
+            }
+            for (long hand : hands) {
+                buffer[offsets[(int) (hand >>> shift) & ((1 << RADIX_BITS) - 1)]++] = hand;
             }
-            return jokerCounts;
-        } else {
-            return cardCounts;
+            long[] sorted = buffer;
+            buffer = hands;
+            hands = sorted;
         }
+        return hands;
     }
 }
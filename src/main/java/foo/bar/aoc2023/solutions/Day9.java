@@ -1,5 +1,6 @@
 package foo.bar.aoc2023.solutions;
 
+import foo.bar.aoc2023.input.LineCursor;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.stereotype.Component;
 
@@ -11,7 +12,12 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Component
-public class Day9 implements Solution<Long> {
+public class Day9 implements CursorSolution<Long> {
+
+    @FunctionalInterface
+    private interface Extrapolation {
+        long apply(int[] sequence, int length);
+    }
 
     @Override
     public Long part1(Stream<String> input) {
@@ -33,6 +39,72 @@ public class Day9 implements Solution<Long> {
                 .orElse(0L);
     }
 
+    @Override
+    public boolean isStreamable(int part) {
+        return true;
+    }
+
+    @Override
+    public Long part1(LineCursor input) {
+        return sumExtrapolations(input, this::extrapolateForwards);
+    }
+
+    @Override
+    public Long part2(LineCursor input) {
+        return sumExtrapolations(input, this::extrapolateBackwards);
+    }
+
+    private long sumExtrapolations(LineCursor input, Extrapolation extrapolation) {
+        long result = 0;
+        int[] history = new int[32];
+        while (input.nextLine()) {
+            int count = 0;
+            while (input.hasNextNumber()) {
+                if (count == history.length) {
+                    history = Arrays.copyOf(history, count * 2);
+                }
+                history[count++] = input.nextInt();
+            }
+            result += extrapolation.apply(history, count);
+        }
+        return result;
+    }
+
+    private long extrapolateForwards(int[] sequence, int length) {
+        long result = 0;
+        for (; length > 0 && !allZeros(sequence, length); length--) {
+            result += sequence[length - 1];
+            differentiate(sequence, length);
+        }
+        return result;
+    }
+
+    private long extrapolateBackwards(int[] sequence, int length) {
+        long result = 0;
+        int sign = 1;
+        for (; length > 0 && !allZeros(sequence, length); length--) {
+            result += sign * sequence[0];
+            sign = -sign;
+            differentiate(sequence, length);
+        }
+        return result;
+    }
+
+    private void differentiate(int[] sequence, int length) {
+        for (int i = 0; i < length - 1; i++) {
+            sequence[i] = sequence[i + 1] - sequence[i];
+        }
+    }
+
+    private boolean allZeros(int[] sequence, int length) {
+        for (int i = 0; i < length; i++) {
+            if (sequence[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private long getPreviousValueInSequence(Deque<Integer> firstValues) {
         long result = 0;
         while (!firstValues.isEmpty()) {
@@ -8,4 +8,20 @@ public interface Solution<T> {
     T part1(Stream<String> input);
 
     T part2(Stream<String> input);
+
+    /**
+     * Whether the part reads each line only once and in order, so its input can be streamed in bounded memory
+     * instead of being loaded whole.
+     */
+    default boolean isStreamable(int part) {
+        return false;
+    }
+
+    /**
+     * Whether the part hands work to other threads, so that the CPU time and allocations of the calling thread
+     * do not account for it.
+     */
+    default boolean isParallel(int part) {
+        return false;
+    }
 }
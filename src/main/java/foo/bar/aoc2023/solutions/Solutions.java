@@ -0,0 +1,30 @@
+package foo.bar.aoc2023.solutions;
+
+import lombok.SneakyThrows;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Builds solutions by day outside of a Spring context.
+ */
+public final class Solutions {
+
+    public static final List<String> DAYS = IntStream.rangeClosed(1, 10).mapToObj("Day%d"::formatted).toList();
+
+    private Solutions() {}
+
+    /**
+     * Normalizes "7", "day7" or "Day7" to "Day7".
+     */
+    public static String dayName(String day) {
+        return "Day" + day.replaceFirst("(?i)^day", "");
+    }
+
+    @SneakyThrows
+    public static Solution<?> newInstance(String day) {
+        return (Solution<?>) Class.forName("%s.%s".formatted(Solutions.class.getPackageName(), dayName(day)))
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+}
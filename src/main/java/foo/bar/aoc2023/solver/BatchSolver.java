@@ -0,0 +1,132 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.input.FileInput;
+import foo.bar.aoc2023.solutions.Solution;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Solves every input file found under {@code <batch-dir>/dayN/} with the already instantiated solutions, one day
+ * at a time fanned out over the worker pool. Answers are written to {@code <batch-dir>/results.csv} and each day
+ * reports its throughput and latency percentiles, where the latency of an input covers both of its parts. Every
+ * input is really solved, the result cache is neither read nor filled, so repeated runs measure the same work.
+ */
+@Log
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BatchSolver {
+
+    private record InputResult(Path file, PartResult part1, PartResult part2) {
+
+        Duration latency() {
+            return part1.elapsed().plus(part2.elapsed());
+        }
+    }
+
+    private final SolverProperties properties;
+
+    private final PartSolver partSolver;
+
+    private final SolverMetrics metrics;
+
+    @SneakyThrows
+    public void solve(List<Solution<?>> solutions) {
+        Path batchDir = Path.of(properties.getBatchDir());
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        StringBuilder report = new StringBuilder("%n%-6s %7s %10s %9s %9s %9s".formatted(
+                "Day", "Inputs", "Inputs/s", "p50 ms", "p99 ms", "Max ms"));
+        try (Writer results = Files.newBufferedWriter(batchDir.resolve("results.csv"))) {
+            results.write("day,input,part1,part2,latency_ms%n".formatted());
+            for (Solution<?> sol : solutions) {
+                String day = sol.getClass().getSimpleName();
+                List<Path> files = getInputFiles(batchDir.resolve(day.toLowerCase()));
+                if (files.isEmpty()) {
+                    continue;
+                }
+                warmUp(sol, files.get(0));
+                long start = System.nanoTime();
+                List<CompletableFuture<InputResult>> tasks = files.stream()
+                        .map(file -> CompletableFuture.supplyAsync(() -> solveInput(sol, file), pool))
+                        .toList();
+                List<InputResult> dayResults = tasks.stream().map(CompletableFuture::join).toList();
+                Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+                for (InputResult result : dayResults) {
+                    results.write("%s,%s,%s,%s,%.3f%n".formatted(
+                            day,
+                            result.file.getFileName(),
+                            result.part1.answer(),
+                            result.part2.answer(),
+                            result.latency().toNanos() / 1e6));
+                }
+                report.append(summarize(day, dayResults, wallTime));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        log.info(report.toString());
+    }
+
+    @SneakyThrows
+    private List<Path> getInputFiles(Path dayDir) {
+        if (!Files.isDirectory(dayDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dayDir)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    /**
+     * Solves one input outside of the measurements and the result cache, so the JIT has seen the day's code.
+     */
+    @SneakyThrows
+    private void warmUp(Solution<?> sol, Path file) {
+        try (FileInput input = FileInput.open(file.toString(), properties.getBufferSize())) {
+            for (Part part : Part.values()) {
+                partSolver.prepareUncached(sol, part, input).get();
+            }
+        }
+    }
+
+    @SneakyThrows
+    private InputResult solveInput(Solution<?> sol, Path file) {
+        try (FileInput input = FileInput.open(file.toString(), properties.getBufferSize())) {
+            return new InputResult(
+                    file,
+                    metrics.measure(sol, Part.PART1, () -> partSolver.prepareUncached(sol, Part.PART1, input)),
+                    metrics.measure(sol, Part.PART2, () -> partSolver.prepareUncached(sol, Part.PART2, input))
+            );
+        }
+    }
+
+    private String summarize(String day, List<InputResult> results, Duration wallTime) {
+        long[] latencies = results.stream().mapToLong(result -> result.latency().toNanos()).sorted().toArray();
+        return "%n%-6s %7d %10.1f %9.2f %9.2f %9.2f".formatted(
+                day,
+                latencies.length,
+                latencies.length / (wallTime.toNanos() / 1e9),
+                percentile(latencies, 50) / 1e6,
+                percentile(latencies, 99) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,59 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.input.LineCursor;
+import foo.bar.aoc2023.solutions.CursorSolution;
+import foo.bar.aoc2023.solutions.Solution;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Getter
+@RequiredArgsConstructor
+public enum Part {
+
+    PART1(1, Solution::part1, CursorSolution::part1),
+    PART2(2, Solution::part2, CursorSolution::part2);
+
+    private final int number;
+
+    private final BiFunction<Solution<?>, Stream<String>, Object> invoker;
+
+    private final BiFunction<CursorSolution<?>, LineCursor, Object> cursorInvoker;
+
+    public Object solve(Solution<?> solution, Stream<String> input) {
+        return invoker.apply(solution, input);
+    }
+
+    /**
+     * Solves this part through the cheapest input contract the solution supports.
+     */
+    public Object solve(Solution<?> solution, Input input) {
+        return prepare(solution, input).get();
+    }
+
+    /**
+     * Decodes {@code input} into what the solution consumes and returns the step that solves it. Cursor solutions
+     * parse the bytes in place while they solve, so there is nothing to decode for them.
+     */
+    public Supplier<Object> prepare(Solution<?> solution, Input input) {
+        if (solution instanceof CursorSolution<?> cursorSolution) {
+            LineCursor cursor = input.cursor();
+            return () -> cursorInvoker.apply(cursorSolution, cursor);
+        }
+        List<String> lines = input.lines().toList();
+        return () -> invoker.apply(solution, lines.stream());
+    }
+
+    public static Part of(int number) {
+        return switch (number) {
+            case 1 -> PART1;
+            case 2 -> PART2;
+            default -> throw new IllegalArgumentException("Unexpected part: " + number);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package foo.bar.aoc2023.solver;
+
+import java.time.Duration;
+
+/**
+ * Answer and cost of solving one part of one day. {@code parseTime} covers loading the input and decoding it
+ * into what the solution consumes, the rest of {@code elapsed} is spent inside the solution itself. CPU time and
+ * allocations are those of the solving thread, which only accounts for all the work when the part is not
+ * {@code parallel}.
+ */
+public record PartResult(String day, Part part, Object answer, Duration elapsed, Duration parseTime,
+                         Duration cpuTime, long allocatedBytes, boolean parallel) {
+
+    public Duration solveTime() {
+        return elapsed.minus(parseTime);
+    }
+}
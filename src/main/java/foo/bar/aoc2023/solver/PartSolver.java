@@ -0,0 +1,86 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.input.FileInput;
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.solutions.CursorSolution;
+import foo.bar.aoc2023.solutions.Solution;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Prepares part invocations for {@link SolverMetrics#measure}: answers come from the result cache when possible.
+ * Cursor solutions read external inputs in place, memory-mapped when large, other solutions get them streamed
+ * when the part allows it. Parts needing the whole input fail up front on files too large to map at once.
+ */
+@Log
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class PartSolver {
+
+    private final ResultCache resultCache;
+
+    private final Set<String> loggedFallbacks = ConcurrentHashMap.newKeySet();
+
+    public Supplier<Object> prepare(Solution<?> sol, Part part, Input input) {
+        return cached(sol, part, input::sha256, () -> part.prepare(sol, input));
+    }
+
+    public Supplier<Object> prepare(Solution<?> sol, Part part, FileInput input) {
+        return cached(sol, part, () -> getHash(input), () -> prepareUncached(sol, part, input));
+    }
+
+    /**
+     * Like {@link #prepare(Solution, Part, FileInput)} but always solving, for measurements that must not be
+     * answered from the result cache.
+     */
+    @SneakyThrows
+    public Supplier<Object> prepareUncached(Solution<?> sol, Part part, FileInput input) {
+        if (sol instanceof CursorSolution<?> && input.isMappable()) {
+            return part.prepare(sol, input.load());
+        }
+        if (sol.isStreamable(part.getNumber())) {
+            return () -> {
+                try (Stream<String> lines = input.lines()) {
+                    return part.solve(sol, lines);
+                }
+            };
+        }
+        if (!input.isMappable()) {
+            throw new IllegalArgumentException(
+                    "%s part %d needs the whole input at once, but it is larger than the %d bytes that can be loaded"
+                            .formatted(sol.getClass().getSimpleName(), part.getNumber(), Integer.MAX_VALUE));
+        }
+        if (loggedFallbacks.add(sol.getClass().getSimpleName() + part)) {
+            log.info("%s part %d needs the whole input at once, loading it fully".formatted(
+                    sol.getClass().getSimpleName(), part.getNumber()));
+        }
+        return part.prepare(sol, input.load());
+    }
+
+    private Supplier<Object> cached(Solution<?> sol, Part part, Supplier<String> inputHash,
+                                    Supplier<Supplier<Object>> prepare) {
+        if (!resultCache.isEnabled()) {
+            return prepare.get();
+        }
+        String hash = inputHash.get();
+        return resultCache.get(sol, part, hash)
+                .<Supplier<Object>>map(answer -> () -> answer)
+                .orElseGet(() -> {
+                    Supplier<Object> solve = prepare.get();
+                    return () -> resultCache.put(sol, part, hash, solve.get());
+                });
+    }
+
+    @SneakyThrows
+    private static String getHash(FileInput input) {
+        return input.sha256();
+    }
+}
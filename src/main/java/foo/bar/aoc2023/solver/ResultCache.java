@@ -0,0 +1,210 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.input.FileInput;
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.input.InputProvider;
+import foo.bar.aoc2023.input.LineCursor;
+import foo.bar.aoc2023.solutions.CursorSolution;
+import foo.bar.aoc2023.solutions.Solution;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of answers keyed by solution, part, input content hash and code version, so unchanged inputs
+ * are only hashed instead of solved again. The code version is a digest of the bytecode of the solution and all
+ * its nested classes, of the shared solution and input classes, and of the implementation version, so changing
+ * any of them invalidates the answers. Answers are restored with the type they were solved as, only longs, integers
+ * and strings are cached. Malformed entries in the cache file are dropped with a warning.
+ */
+@Log
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ResultCache {
+
+    private record Entry(long lastUsed, Object answer) {}
+
+    /**
+     * Parsers of the cached answer types, by simple class name.
+     */
+    private static final Map<String, Function<String, Object>> ANSWER_TYPES = Map.of(
+            "Long", Long::valueOf,
+            "Integer", Integer::valueOf,
+            "String", String::valueOf);
+
+    /**
+     * Code every solution depends on besides its own classes.
+     */
+    private static final List<Class<?>> SHARED_CLASSES = List.of(
+            Solution.class, CursorSolution.class, Part.class,
+            Input.class, LineCursor.class, FileInput.class, InputProvider.class);
+
+    private final SolverProperties properties;
+
+    private final Map<Class<?>, String> codeVersions = new ConcurrentHashMap<>();
+
+    private Map<String, Entry> entries;
+
+    private boolean modified;
+
+    public boolean isEnabled() {
+        return properties.getCache().isEnabled();
+    }
+
+    public synchronized Optional<Object> get(Solution<?> solution, Part part, String inputHash) {
+        Entry entry = getEntries().get(getKey(solution, part, inputHash));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        // a hit alone does not rewrite the file, its last use is only saved along with the next change
+        getEntries().put(getKey(solution, part, inputHash), new Entry(System.currentTimeMillis(), entry.answer));
+        return Optional.of(entry.answer);
+    }
+
+    public synchronized Object put(Solution<?> solution, Part part, String inputHash, Object answer) {
+        if (answer == null || !ANSWER_TYPES.containsKey(answer.getClass().getSimpleName())) {
+            return answer;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), answer);
+        getEntries().put(getKey(solution, part, inputHash), entry);
+        modified = true;
+        return answer;
+    }
+
+    /**
+     * Evicts the least recently used entries beyond the configured maximum and writes the cache file.
+     */
+    @SneakyThrows
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        Properties file = new Properties();
+        getEntries().entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Entry> e) -> e.getValue().lastUsed).reversed())
+                .limit(properties.getCache().getMaxEntries())
+                .forEach(e -> file.setProperty(e.getKey(),
+                        "%d|%s|%s".formatted(e.getValue().lastUsed, e.getValue().answer.getClass().getSimpleName(),
+                                e.getValue().answer)));
+        Path path = Path.of(properties.getCache().getFile());
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            file.store(writer, "aoc2023 result cache");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        modified = false;
+    }
+
+    private String getKey(Solution<?> solution, Part part, String inputHash) {
+        return "%s|%d|%s|%s".formatted(
+                solution.getClass().getSimpleName(),
+                part.getNumber(),
+                inputHash,
+                codeVersions.computeIfAbsent(solution.getClass(), ResultCache::getCodeVersion));
+    }
+
+    private Map<String, Entry> getEntries() {
+        if (entries == null) {
+            entries = new HashMap<>();
+            Path path = Path.of(properties.getCache().getFile());
+            if (Files.exists(path)) {
+                load(path);
+            }
+        }
+        return entries;
+    }
+
+    private void load(Path path) {
+        Properties file = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            file.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warning("Ignoring unreadable result cache %s: %s".formatted(path, e));
+            modified = true;
+            return;
+        }
+        int malformed = 0;
+        for (String key : file.stringPropertyNames()) {
+            Entry entry = parseEntry(file.getProperty(key));
+            if (entry == null) {
+                malformed++;
+            } else {
+                entries.put(key, entry);
+            }
+        }
+        if (malformed > 0) {
+            log.warning("Dropping %d malformed entries from the result cache %s".formatted(malformed, path));
+            modified = true;
+        }
+        log.fine("Loaded %d cached results from %s".formatted(entries.size(), path));
+    }
+
+    /**
+     * Entry stored as "lastUsed|type|answer", or null if the value is not one.
+     */
+    private static Entry parseEntry(String value) {
+        String[] fields = value.split("\\|", 3);
+        Function<String, Object> answerType = fields.length == 3 ? ANSWER_TYPES.get(fields[1]) : null;
+        if (answerType == null) {
+            return null;
+        }
+        try {
+            return new Entry(Long.parseLong(fields[0]), answerType.apply(fields[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String getCodeVersion(Class<?> solutionClass) {
+        return getCodeVersion(solutionClass, ResultCache::readBytecode);
+    }
+
+    /**
+     * Digest of the bytecode of every nest member of the solution class and of the shared classes, in a fixed order.
+     */
+    @SneakyThrows
+    static String getCodeVersion(Class<?> solutionClass, Function<Class<?>, byte[]> bytecode) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        Stream.concat(Stream.of(solutionClass), SHARED_CLASSES.stream())
+                .flatMap(type -> Stream.of(type.getNestMembers()))
+                .distinct()
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(type -> {
+                    digest.update(type.getName().getBytes());
+                    digest.update(bytecode.apply(type));
+                });
+        String implementationVersion = solutionClass.getPackage().getImplementationVersion();
+        digest.update(String.valueOf(implementationVersion).getBytes());
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    @SneakyThrows
+    private static byte[] readBytecode(Class<?> type) {
+        try (InputStream bytecode = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            return bytecode != null ? bytecode.readAllBytes() : new byte[0];
+        }
+    }
+}
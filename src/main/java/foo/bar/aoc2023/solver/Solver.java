@@ -1,17 +1,22 @@
 package foo.bar.aoc2023.solver;
 
+import foo.bar.aoc2023.input.FileInput;
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.input.InputProvider;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.java.Log;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import foo.bar.aoc2023.solutions.Solution;
+import foo.bar.aoc2023.solutions.Solutions;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 @Log
 @Service
@@ -20,26 +25,78 @@ public class Solver {
 
     private final List<Solution<?>> solutions;
 
+    private final SolverProperties properties;
+
+    private final InputProvider inputProvider;
+
+    private final SolverMetrics metrics;
+
+    private final ResultCache resultCache;
+
+    private final PartSolver partSolver;
+
+    private final BatchSolver batchSolver;
+
     @PostConstruct
     public void init() {
-        solve();
+        if (properties.getBatchDir() != null) {
+            batchSolver.solve(getSolutions());
+        } else {
+            solve();
+        }
     }
 
+    @SneakyThrows
     private void solve() {
-        solutions.forEach(sol -> {
-            String solutionClassName = sol.getClass().getSimpleName();
-            log.info("%n-----%s solutions:-----%nPart 1: [%s]%nPart 2: [%s]".formatted(
-                    solutionClassName,
-                    sol.part1(getInput(solutionClassName)),
-                    sol.part2(getInput(solutionClassName))
-            ));
-        });
+        if (properties.getInput() != null && properties.getDay() == null) {
+            throw new IllegalStateException("solver.day is required to solve solver.input");
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        try (FileInput fileInput = properties.getInput() == null
+                ? null
+                : FileInput.open(properties.getInput(), properties.getBufferSize())) {
+            long start = System.nanoTime();
+            List<CompletableFuture<PartResult>> tasks = new ArrayList<>();
+            for (Solution<?> sol : getSolutions()) {
+                for (Part part : Part.values()) {
+                    tasks.add(CompletableFuture.supplyAsync(() -> solvePart(sol, part, fileInput), pool));
+                }
+            }
+            List<PartResult> results = tasks.stream().map(CompletableFuture::join).toList();
+            report(results, Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            pool.shutdown();
+            resultCache.save();
+        }
     }
 
-    @SneakyThrows
-    private Stream<String> getInput(String className) {
-        return new ClassPathResource("%s.txt".formatted(className.toLowerCase()))
-                .getContentAsString(StandardCharsets.UTF_8)
-                .lines();
+    private List<Solution<?>> getSolutions() {
+        if (properties.getDay() == null) {
+            return solutions;
+        }
+        String day = Solutions.dayName(properties.getDay());
+        return solutions.stream().filter(sol -> sol.getClass().getSimpleName().equals(day)).toList();
+    }
+
+    private PartResult solvePart(Solution<?> sol, Part part, FileInput fileInput) {
+        String solutionClassName = sol.getClass().getSimpleName();
+        return metrics.measure(sol, part, () -> fileInput == null
+                ? partSolver.prepare(sol, part, getInput(solutionClassName))
+                : partSolver.prepare(sol, part, fileInput));
+    }
+
+    private void report(List<PartResult> results, Duration wallTime) {
+        Duration summedTime = results.stream().map(PartResult::elapsed).reduce(Duration.ZERO, Duration::plus);
+        log.info("%s%n-----Total: %d ms wall, %d ms summed over %d tasks on %d threads-----".formatted(
+                metrics.summary(results),
+                wallTime.toMillis(),
+                summedTime.toMillis(),
+                results.size(),
+                Math.max(1, properties.getParallelism())
+        ));
+    }
+
+    private Input getInput(String className) {
+        return inputProvider.get("%s.txt".formatted(className.toLowerCase()));
     }
 }
@@ -0,0 +1,116 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.solutions.Solution;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures wall time, CPU time and allocated bytes of every part invocation and publishes them as meters
+ * tagged by day and part. CPU time and allocations are those of the solving thread, so they are neither published
+ * nor printed for parts that hand work to other threads: with parts solved concurrently on a shared pool, the
+ * work of its workers cannot be told apart by part.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SolverMetrics {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry registry;
+
+    /**
+     * Runs {@code task} in two phases: calling it parses the input and returns the solving step.
+     */
+    public PartResult measure(Solution<?> sol, Part part, Supplier<Supplier<Object>> task) {
+        long cpuStart = getCpuTime();
+        long allocatedStart = getAllocatedBytes();
+        long start = System.nanoTime();
+        Supplier<Object> solve = task.get();
+        long parseEnd = System.nanoTime();
+        Object answer = solve.get();
+        long end = System.nanoTime();
+        var result = new PartResult(
+                sol.getClass().getSimpleName(),
+                part,
+                answer,
+                Duration.ofNanos(end - start),
+                Duration.ofNanos(parseEnd - start),
+                Duration.ofNanos(getCpuTime() - cpuStart),
+                getAllocatedBytes() - allocatedStart,
+                sol.isParallel(part.getNumber())
+        );
+        record(result);
+        return result;
+    }
+
+    public String summary(List<PartResult> results) {
+        StringBuilder table = new StringBuilder("%n%s%n%s%n%-6s %4s %-16s %9s %9s %9s %9s %10s".formatted(
+                "Parse ms covers loading and decoding lines, cursor solutions and streamed inputs parse while solving.",
+                "CPU ms and Alloc MB count the solving thread, parts solved in parallel show none.",
+                "Day", "Part", "Answer", "Wall ms", "Parse ms", "Solve ms", "CPU ms", "Alloc MB"));
+        for (PartResult result : results) {
+            table.append("%n%-6s %4d %-16s %9.1f %9.1f %9.1f %9s %10s".formatted(
+                    result.day(),
+                    result.part().getNumber(),
+                    result.answer(),
+                    toMillis(result.elapsed()),
+                    toMillis(result.parseTime()),
+                    toMillis(result.solveTime()),
+                    result.parallel() ? "-" : "%.1f".formatted(toMillis(result.cpuTime())),
+                    result.parallel() ? "-" : "%.1f".formatted(result.allocatedBytes() / (1024.0 * 1024.0))
+            ));
+        }
+        return table.toString();
+    }
+
+    private void record(PartResult result) {
+        String day = result.day();
+        String part = String.valueOf(result.part().getNumber());
+        timer("solver.part.time", day, part, "parse").record(result.parseTime());
+        timer("solver.part.time", day, part, "solve").record(result.solveTime());
+        if (result.parallel()) {
+            return;
+        }
+        timer("solver.part.cpu", day, part, "all").record(result.cpuTime());
+        DistributionSummary.builder("solver.part.allocated")
+                .baseUnit("bytes")
+                .tag("day", day)
+                .tag("part", part)
+                .register(registry)
+                .record(result.allocatedBytes());
+    }
+
+    private Timer timer(String name, String day, String part, String phase) {
+        return Timer.builder(name)
+                .tag("day", day)
+                .tag("part", part)
+                .tag("phase", phase)
+                .register(registry);
+    }
+
+    private static double toMillis(Duration duration) {
+        return duration.toNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static long getCpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long getAllocatedBytes() {
+        return threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemorySupported()
+                ? sunThreads.getCurrentThreadAllocatedBytes()
+                : 0;
+    }
+}
@@ -0,0 +1,56 @@
+package foo.bar.aoc2023.solver;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "solver")
+public class SolverProperties {
+
+    /**
+     * Number of worker threads solving (day, part) tasks. 1 solves them one after the other.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Only solve this day, e.g. "Day9". Every day is solved when unset.
+     */
+    private String day;
+
+    /**
+     * Path of an input file to solve instead of the bundled puzzle input, or "-" to read stdin. Requires a day.
+     */
+    private String input;
+
+    /**
+     * Size in bytes of the buffer through which external inputs are streamed.
+     */
+    private int bufferSize = 64 * 1024;
+
+    /**
+     * Directory with a dayN subdirectory of input files per day. When set, every file is solved in batch mode
+     * instead of the bundled puzzle inputs, bypassing the result cache.
+     */
+    private String batchDir;
+
+    private final Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether answers are looked up in and stored to the result cache. Disable to always solve.
+         */
+        private boolean enabled = true;
+
+        /**
+         * File the result cache is persisted to.
+         */
+        private String file = System.getProperty("user.home") + "/.aoc2023/results.properties";
+
+        /**
+         * Number of entries kept; the least recently used ones are evicted beyond it.
+         */
+        private int maxEntries = 1000;
+    }
+}
@@ -0,0 +1,21 @@
+package foo.bar.aoc2023.generator;
+
+import foo.bar.aoc2023.input.Input;
+import foo.bar.aoc2023.solutions.Day6;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Day6GeneratorTest {
+
+    private final Day6 day6 = new Day6();
+
+    @Test
+    void testSolvesBothPartsAtEveryHarnessSize() {
+        for (int size : ScalingHarness.DEFAULT_SIZES) {
+            Input input = Input.of(new Day6Generator().generate(size, 42));
+            assertTrue(day6.part1(input.lines()) > 0, "size " + size);
+            assertTrue(day6.part2(input.lines()) > 0, "size " + size);
+        }
+    }
+}
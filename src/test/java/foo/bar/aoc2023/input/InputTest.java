@@ -0,0 +1,56 @@
+package foo.bar.aoc2023.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InputTest {
+
+    private static final String TEXT = "a\r\nb\rc\n\rd\r\r\ne\n";
+
+    @Test
+    void testLinesMatchStringLines() {
+        assertEquals(TEXT.lines().toList(), input().lines().toList());
+    }
+
+    @Test
+    void testCursorMatchesStringLines() {
+        List<String> lines = new ArrayList<>();
+        LineCursor cursor = input().cursor();
+        while (cursor.nextLine()) {
+            lines.add(cursor.toString());
+        }
+        assertEquals(TEXT.lines().toList(), lines);
+    }
+
+    @Test
+    void testSplitMatchesStringLines() {
+        for (int chunkSize = 1; chunkSize <= TEXT.length(); chunkSize++) {
+            List<String> lines = new ArrayList<>();
+            for (LineCursor chunk : input().cursor().split(chunkSize)) {
+                while (chunk.nextLine()) {
+                    lines.add(chunk.toString());
+                }
+            }
+            assertEquals(TEXT.lines().toList(), lines, "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void testCursorCharAtStaysWithinLine() {
+        LineCursor cursor = input().cursor();
+        cursor.nextLine();
+        assertEquals('a', cursor.charAt(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.charAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.charAt(-1));
+    }
+
+    private static Input input() {
+        return Input.of(TEXT.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -1,20 +1,22 @@
 package foo.bar.aoc2023.solutions;
 
+import foo.bar.aoc2023.input.InputProvider;
+import foo.bar.aoc2023.input.LineCursor;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
-import org.springframework.core.io.ClassPathResource;
 
-import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @RequiredArgsConstructor
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public abstract class AOCTest<T> {
 
+    private static final InputProvider inputProvider = new InputProvider();
+
     protected final Solution<T> solution;
 
     protected final T solution1;
@@ -31,12 +33,26 @@ public abstract class AOCTest<T> {
         assertEquals(solution2, solution.part2(getInput(2)));
     }
 
-    @SneakyThrows
-    private Stream<String> getInput(int part) {
+    @Test
+    void testPart1Cursor() {
+        assumeTrue(solution instanceof CursorSolution);
+        assertEquals(solution1, ((CursorSolution<T>) solution).part1(getCursor(1)));
+    }
+
+    @Test
+    void testPart2Cursor() {
+        assumeTrue(solution instanceof CursorSolution);
+        assertEquals(solution2, ((CursorSolution<T>) solution).part2(getCursor(2)));
+    }
+
+    protected LineCursor getCursor(int part) {
+        String className = solution.getClass().getSimpleName();
+        return inputProvider.get(getResourceName(className, part)).cursor();
+    }
+
+    protected Stream<String> getInput(int part) {
         String className = solution.getClass().getSimpleName();
-        return new ClassPathResource(getResourceName(className, part))
-                .getContentAsString(StandardCharsets.UTF_8)
-                .lines();
+        return inputProvider.get(getResourceName(className, part)).lines();
     }
 
     private String getResourceName(String className, int part) {
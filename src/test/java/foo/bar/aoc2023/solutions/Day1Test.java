@@ -1,8 +1,26 @@
 package foo.bar.aoc2023.solutions;
 
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class Day1Test extends AOCTest<Long> {
 
     public Day1Test() {
         super(new Day1(), 142L, 281L);
     }
+
+    @Test
+    void testTinyChunks() {
+        var day1 = new Day1();
+        try {
+            for (int chunkSize : new int[]{1, 2, 7, 100}) {
+                Chunking.cap(chunkSize);
+                assertEquals(solution1, day1.part1(getCursor(1)), "chunk size " + chunkSize);
+                assertEquals(solution2, day1.part2(getCursor(2)), "chunk size " + chunkSize);
+            }
+        } finally {
+            Chunking.uncap();
+        }
+    }
 }
@@ -1,8 +1,22 @@
 package foo.bar.aoc2023.solutions;
 
-public class Day2Test extends AOCTest<Integer> {
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class Day2Test extends AOCTest<Long> {
 
     public Day2Test() {
-        super(new Day2(), 8, 2286);
+        super(new Day2(), 8L, 2286L);
+    }
+
+    @Test
+    void testGameIndexQueries() {
+        var index = new Day2().buildIndex(getInput(1));
+        int[] reds = {12, 100, 0};
+        int[] greens = {13, 100, 0};
+        int[] blues = {14, 100, 0};
+        assertArrayEquals(new long[]{8, 15, 0}, index.idSums(reds, greens, blues));
+        assertArrayEquals(new long[]{48 + 12 + 36, 2286, 0}, index.powerSums(reds, greens, blues));
     }
 }
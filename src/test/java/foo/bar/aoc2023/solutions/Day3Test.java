@@ -1,8 +1,45 @@
 package foo.bar.aoc2023.solutions;
 
-public class Day3Test extends AOCTest<Integer> {
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class Day3Test extends AOCTest<Long> {
 
     public Day3Test() {
-        super(new Day3(), 4361, 467835);
+        super(new Day3(), 4361L, 467835L);
+    }
+
+    @Test
+    void testSingleRowBands() {
+        var day3 = new Day3();
+        Chunking.cap(1);
+        try {
+            assertEquals(solution1, day3.part1(getInput(1)));
+            assertEquals(solution2, day3.part2(getInput(2)));
+        } finally {
+            Chunking.uncap();
+        }
+    }
+
+    @Test
+    void testTallDenseSchematic() {
+        int gears = 6000;
+        List<String> schematic = IntStream.range(0, 2 * gears)
+                .mapToObj(row -> row % 2 == 0 ? "999*999" : ".......")
+                .toList();
+        var day3 = new Day3();
+        try {
+            for (int bandRows : new int[]{Chunking.SCHEMATIC_ROWS, 7}) {
+                Chunking.cap(bandRows);
+                assertEquals(gears * 1998L, day3.part1(schematic.stream()), "band rows " + bandRows);
+                assertEquals(gears * 998001L, day3.part2(schematic.stream()), "band rows " + bandRows);
+            }
+        } finally {
+            Chunking.uncap();
+        }
     }
 }
@@ -1,8 +1,8 @@
 package foo.bar.aoc2023.solutions;
 
-public class Day4Test extends AOCTest<Integer> {
+public class Day4Test extends AOCTest<Long> {
 
     public Day4Test() {
-        super(new Day4(), 13, 30);
+        super(new Day4(), 13L, 30L);
     }
 }
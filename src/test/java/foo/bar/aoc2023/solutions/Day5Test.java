@@ -1,8 +1,38 @@
 package foo.bar.aoc2023.solutions;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
 public class Day5Test extends AOCTest<Long> {
 
     public Day5Test() {
         super(new Day5(), 35L, 46L);
     }
+
+    @Test
+    void testCompiledAlmanacQueries() {
+        var almanac = new Day5().compile(getInput(1));
+        long[] seeds = {79, 14, 55, 13};
+        assertArrayEquals(new long[]{82, 43, 86, 35}, almanac.minLocations(seeds, seeds));
+        assertArrayEquals(new long[]{Long.MAX_VALUE}, almanac.minLocations(new long[]{10}, new long[]{5}));
+        assertArrayEquals(new long[0], almanac.locationRanges(new long[]{10}, new long[]{5}));
+        assertArrayEquals(new long[]{1000, Long.MAX_VALUE},
+                almanac.locationRanges(new long[]{1000, 5000}, new long[]{Long.MAX_VALUE, 6000}));
+
+        long[] seedMins = {0, 40, 90};
+        long[] seedMaxs = {50, 60, 99};
+        long[] expected = LongStream.concat(LongStream.rangeClosed(0, 60), LongStream.rangeClosed(90, 99))
+                .map(seed -> almanac.minLocations(new long[]{seed}, new long[]{seed})[0])
+                .distinct()
+                .sorted()
+                .toArray();
+        long[] ranges = almanac.locationRanges(seedMins, seedMaxs);
+        long[] actual = LongStream.range(0, ranges.length / 2)
+                .flatMap(i -> LongStream.rangeClosed(ranges[(int) (2 * i)], ranges[(int) (2 * i + 1)]))
+                .toArray();
+        assertArrayEquals(expected, actual);
+    }
 }
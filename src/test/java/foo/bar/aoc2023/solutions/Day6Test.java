@@ -1,8 +1,47 @@
 package foo.bar.aoc2023.solutions;
 
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class Day6Test extends AOCTest<Long> {
 
     public Day6Test() {
         super(new Day6(), 288L, 71503L);
     }
+
+    @Test
+    void testRaceBounds() {
+        var day6 = new Day6();
+        assertEquals(0L, day6.part2(Stream.of("Time: 1", "Distance: 5")));
+        assertEquals(1L, day6.part2(Stream.of("Time: 4", "Distance: 3")));
+        assertEquals(9_999_999_999L, day6.part2(Stream.of("Time: 10000000000", "Distance: 1")));
+        assertEquals(5_999_999_999L, day6.part2(Stream.of("Time: 6000000000", "Distance: 0")));
+    }
+
+    @Test
+    void testRaceTable() {
+        var day6 = new Day6();
+        assertArrayEquals(new long[]{4, 8, 9}, day6.getNumWinningWays(new long[]{7, 15, 30}, new long[]{9, 40, 200}));
+        long[] times = {10_000_000_000L, 10_000_000_000L, 10_000_000_000L};
+        long[] distances = {1, 1, 1};
+        assertEquals(BigInteger.valueOf(9_999_999_999L).pow(3), day6.getWinningWaysProduct(times, distances));
+    }
+
+    @Test
+    void testRaceTableInSmallChunks() {
+        var day6 = new Day6();
+        Chunking.cap(2);
+        try {
+            assertEquals(solution1, day6.part1(getInput(1)));
+            assertArrayEquals(new long[]{4, 8, 9},
+                    day6.getNumWinningWays(new long[]{7, 15, 30}, new long[]{9, 40, 200}));
+        } finally {
+            Chunking.uncap();
+        }
+    }
 }
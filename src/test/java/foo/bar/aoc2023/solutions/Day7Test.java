@@ -1,8 +1,61 @@
 package foo.bar.aoc2023.solutions;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public class Day7Test extends AOCTest<Long> {
 
     public Day7Test() {
         super(new Day7(), 6440L, 5905L);
     }
+
+    @Test
+    void testSpilledRuns() {
+        var day7 = new Day7();
+        Chunking.cap(2);
+        try {
+            assertEquals(solution1, day7.part1(getInput(1)));
+            assertEquals(solution2, day7.part2(getInput(2)));
+        } finally {
+            Chunking.uncap();
+        }
+    }
+
+    @Test
+    void testSpilledRunsOnSolvingPool() {
+        var day7 = new Day7();
+        var pool = new ForkJoinPool(1);
+        Chunking.cap(1);
+        try {
+            assertEquals(solution1, pool.submit(() -> day7.part1(getInput(1))).join());
+            assertEquals(solution2, pool.submit(() -> day7.part2(getInput(2))).join());
+        } finally {
+            Chunking.uncap();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLeaderboard() {
+        var day7 = new Day7();
+        var leaderboard = day7.buildLeaderboard(getInput(1));
+        assertEquals(solution1, leaderboard.getPokerWinnings());
+        assertEquals(solution2, leaderboard.getJokerWinnings());
+
+        assertEquals(220, leaderboard.remove("KTJJT"));
+        var remaining = getInput(1).filter(line -> !line.startsWith("KTJJT")).toList();
+        assertEquals(day7.part1(remaining.stream()), leaderboard.getPokerWinnings());
+        assertEquals(day7.part2(remaining.stream()), leaderboard.getJokerWinnings());
+
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.remove("KTJJT"));
+        leaderboard.add("KTJJT", 220);
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.add("KTJJT", 220));
+        assertEquals(5, leaderboard.size());
+        assertEquals(solution1, leaderboard.getPokerWinnings());
+        assertEquals(solution2, leaderboard.getJokerWinnings());
+    }
 }
@@ -0,0 +1,76 @@
+package foo.bar.aoc2023.solver;
+
+import foo.bar.aoc2023.input.LineCursor;
+import foo.bar.aoc2023.solutions.Day5;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ResultCacheTest {
+
+    private static final Function<Class<?>, byte[]> BYTECODE = type -> type.getName().getBytes();
+
+    @Test
+    void testCodeVersionIsStable() {
+        assertEquals(ResultCache.getCodeVersion(Day5.class, BYTECODE),
+                ResultCache.getCodeVersion(Day5.class, BYTECODE));
+    }
+
+    @Test
+    void testChangedNestedClassChangesCodeVersion() {
+        assertNotEquals(ResultCache.getCodeVersion(Day5.class, BYTECODE),
+                ResultCache.getCodeVersion(Day5.class, changed(Day5.class.getName() + "$PiecewiseMapping")));
+    }
+
+    @Test
+    void testChangedSharedClassChangesCodeVersion() {
+        assertNotEquals(ResultCache.getCodeVersion(Day5.class, BYTECODE),
+                ResultCache.getCodeVersion(Day5.class, changed(LineCursor.class.getName())));
+    }
+
+    @Test
+    void testCachedAnswerKeepsItsType(@TempDir Path dir) {
+        Path file = dir.resolve("results.properties");
+        ResultCache cache = newCache(file);
+        cache.put(new Day5(), Part.PART1, "hash", 42L);
+        cache.save();
+        assertEquals(Optional.of(42L), newCache(file).get(new Day5(), Part.PART1, "hash"));
+    }
+
+    @Test
+    void testMalformedEntriesAreDropped(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("results.properties");
+        ResultCache cache = newCache(file);
+        cache.put(new Day5(), Part.PART1, "hash", 42L);
+        cache.save();
+        Files.writeString(file, "truncated=17\nhand-edited=1|Long|x\n", StandardOpenOption.APPEND);
+        ResultCache reloaded = newCache(file);
+        assertEquals(Optional.of(42L), reloaded.get(new Day5(), Part.PART1, "hash"));
+        reloaded.save();
+        assertFalse(Files.readString(file).contains("truncated"));
+    }
+
+    private static ResultCache newCache(Path file) {
+        SolverProperties properties = new SolverProperties();
+        properties.getCache().setFile(file.toString());
+        return new ResultCache(properties);
+    }
+
+    private static Function<Class<?>, byte[]> changed(String className) {
+        return type -> {
+            byte[] bytecode = BYTECODE.apply(type);
+            return type.getName().equals(className) ? Arrays.copyOf(bytecode, bytecode.length + 1) : bytecode;
+        };
+    }
+}